@@ -2,8 +2,7 @@ package com.serenitydojo.playwright;
 
 import com.microsoft.playwright.*;
 import org.junit.jupiter.api.*;
-
-import java.util.Arrays;
+import org.junit.jupiter.api.extension.RegisterExtension;
 
 public class ASimplePlaywrightTest {
 
@@ -11,19 +10,22 @@ public class ASimplePlaywrightTest {
     private static Browser browser;
     private static BrowserContext browserContext;
 
+    // Reports (and closes) any page a test opens and leaves open; the fixture page is closed after each test
+    @RegisterExtension
+    static PlaywrightLeakDetector leaks = PlaywrightLeakDetector.closingLeaks();
+
     Page page;
 
     @BeforeAll
     public static void setUpBrowser() {
         playwright = Playwright.create();
-        browser = playwright.chromium().launch(
+        browser = CrossBrowserMatrix.browserType(playwright).launch(
                 new BrowserType.LaunchOptions()
                         .setHeadless(false)
-                        .setArgs(Arrays.asList("--no-sandbox",
-                                "--disable-gpu",
-                                "--disable-extensions"))
+                        .setArgs(CrossBrowserMatrix.launchArgs())
         );
-        browserContext = browser.newContext();
+        // Every page opened in this context is tracked, whether by the fixture or by a test
+        browserContext = leaks.track(browser.newContext());
     }
 
     @BeforeEach
@@ -31,6 +33,11 @@ public class ASimplePlaywrightTest {
         page = browserContext.newPage();
     }
 
+    @AfterEach
+    public void closePage() {
+        page.close();
+    }
+
     @AfterAll
     public static void tearDown() {
         browser.close();
@@ -0,0 +1,258 @@
+package com.serenitydojo.playwright;
+
+import com.microsoft.playwright.PlaywrightException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleFunction;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Gives each assertion or wait a timeout learned from how long it took to succeed in earlier runs.
+ * <p>
+ * Playwright assertions wait 5 seconds and page waits 30 seconds before giving up, so an assertion that is
+ * never going to pass costs the full default every time. Wrapping a call records how long it took when it
+ * passed, per call site (the class, method and line it was called from, or a name of your choice). Once a
+ * call site has enough history, it gets a timeout at a high percentile of its recorded durations plus a
+ * margin, never below a floor and never above a global cap. A check that usually passes in 300 ms then
+ * fails after a second or so instead of after five.
+ * <pre>
+ *     AdaptiveTimeouts.assertion(timeout -> assertThat(firstNameField).hasValue("Sarah-Jane",
+ *             new LocatorAssertions.HasValueOptions().setTimeout(timeout)));
+ *     AdaptiveTimeouts.waitFor(timeout -> page.waitForSelector(".card",
+ *             new Page.WaitForSelectorOptions().setTimeout(timeout)));
+ * </pre>
+ * To keep passing tests from becoming flaky, a call site that fails with a learned timeout loses its
+ * history, so the next run uses the Playwright default again and learns from there.
+ * <p>
+ * The history is kept in {@code .adaptive-timeouts/history.properties}, outside {@code target} so that
+ * {@code mvn clean} keeps it and CI can cache it ({@code -Dadaptive.timeouts.file} to keep it elsewhere).
+ * Other settings:
+ * <ul>
+ *     <li>{@code -Dadaptive.timeouts=false} records durations but always uses the Playwright defaults</li>
+ *     <li>{@code -Dadaptive.timeouts.percentile} (default 0.99) and {@code -Dadaptive.timeouts.margin}
+ *     (default 0.5, i.e. 50% on top)</li>
+ *     <li>{@code -Dadaptive.timeouts.min.ms} (default 1000) and {@code -Dadaptive.timeouts.max.ms} (default 30000)</li>
+ *     <li>{@code -Dadaptive.timeouts.samples} (default 5): how many passing runs are needed before adapting</li>
+ *     <li>{@code -Dadaptive.timeouts.max.age.days} (default 14): call sites not run for this long, such as
+ *     lines that have moved, are dropped from the history</li>
+ * </ul>
+ * The timeout is handed to the wrapped call to pass in its own options, so no default timeout is
+ * changed, and calls on other threads are not affected.
+ */
+public final class AdaptiveTimeouts {
+
+    public static final double PLAYWRIGHT_WAIT_TIMEOUT_MILLIS = 30_000;
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("adaptive.timeouts", "true"));
+    private static final Path HISTORY = Paths.get(System.getProperty("adaptive.timeouts.file", ".adaptive-timeouts/history.properties"));
+    private static final double PERCENTILE = Double.parseDouble(System.getProperty("adaptive.timeouts.percentile", "0.99"));
+    private static final double MARGIN = Double.parseDouble(System.getProperty("adaptive.timeouts.margin", "0.5"));
+    private static final long MIN_TIMEOUT_MILLIS = Long.getLong("adaptive.timeouts.min.ms", 1_000);
+    private static final long MAX_TIMEOUT_MILLIS = Long.getLong("adaptive.timeouts.max.ms", 30_000);
+    private static final int MIN_SAMPLES = Integer.getInteger("adaptive.timeouts.samples", 5);
+    private static final int MAX_SAMPLES = 50;
+    private static final long MAX_AGE_DAYS = Long.getLong("adaptive.timeouts.max.age.days", 14);
+
+    private static final Map<String, LocalDate> LAST_SEEN = new ConcurrentHashMap<>();
+    private static final Map<String, Deque<Long>> DURATIONS = loadHistory();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(AdaptiveTimeouts::saveHistory, "adaptive-timeouts-save"));
+    }
+
+    private AdaptiveTimeouts() {
+    }
+
+    /**
+     * Runs a Playwright assertion with a timeout learned for this call site. The assertion is given the
+     * timeout to pass in its options, so nothing global changes and other threads are not affected:
+     * <pre>
+     *     AdaptiveTimeouts.assertion(timeout -> assertThat(field).isVisible(new LocatorAssertions.IsVisibleOptions().setTimeout(timeout)));
+     * </pre>
+     * Until the call site has enough history, the timeout is the default assertion timeout.
+     */
+    public static void assertion(DoubleConsumer assertion) {
+        assertion(callSite(), assertion);
+    }
+
+    public static void assertion(String name, DoubleConsumer assertion) {
+        double defaultTimeout = BatchedAssertions.defaultTimeout();
+        double timeout = timeoutFor(name, defaultTimeout);
+        timed(name, timeout, defaultTimeout, () -> {
+            assertion.accept(timeout);
+            return null;
+        });
+    }
+
+    /**
+     * Runs a page wait ({@code waitForSelector}, {@code waitForResponse}...) with a timeout learned for this
+     * call site, passed to the wait to use in its options. Until the call site has enough history, the
+     * timeout is Playwright's default of 30 seconds.
+     */
+    public static <T> T waitFor(DoubleFunction<T> wait) {
+        return waitFor(callSite(), wait);
+    }
+
+    public static <T> T waitFor(String name, DoubleFunction<T> wait) {
+        double timeout = timeoutFor(name, PLAYWRIGHT_WAIT_TIMEOUT_MILLIS);
+        return timed(name, timeout, PLAYWRIGHT_WAIT_TIMEOUT_MILLIS, () -> wait.apply(timeout));
+    }
+
+    /**
+     * Like {@link #waitFor(DoubleFunction)}, for waits that return nothing, such as {@code waitForCondition}.
+     */
+    public static void waitUntil(DoubleConsumer wait) {
+        waitUntil(callSite(), wait);
+    }
+
+    public static void waitUntil(String name, DoubleConsumer wait) {
+        waitFor(name, timeout -> {
+            wait.accept(timeout);
+            return null;
+        });
+    }
+
+    /**
+     * The timeout a call site will get: the Playwright default until there is enough history, and the
+     * default regardless when adaptive timeouts are switched off.
+     */
+    public static double timeoutFor(String name, double playwrightDefault) {
+        double fallback = Math.min(playwrightDefault, MAX_TIMEOUT_MILLIS);
+        Deque<Long> durations = DURATIONS.get(name);
+        if (!ENABLED || durations == null) {
+            return fallback;
+        }
+        long[] sorted;
+        synchronized (durations) {
+            if (durations.size() < MIN_SAMPLES) {
+                return fallback;
+            }
+            sorted = durations.stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+        long percentile = sorted[Math.max(0, (int) Math.ceil(PERCENTILE * sorted.length) - 1)];
+        double learned = percentile * (1 + MARGIN);
+        return Math.min(MAX_TIMEOUT_MILLIS, Math.max(MIN_TIMEOUT_MILLIS, learned));
+    }
+
+    private static <T> T timed(String name, double timeout, double playwrightDefault, Supplier<T> call) {
+        long start = System.currentTimeMillis();
+        try {
+            T result = call.get();
+            record(name, System.currentTimeMillis() - start);
+            return result;
+        } catch (AssertionError | PlaywrightException e) {
+            if (timeout < playwrightDefault) {
+                // The learned timeout may simply have been too tight: start again from the default next time
+                DURATIONS.remove(name);
+                System.out.printf("%s failed after %d ms with a learned timeout of %.0f ms (Playwright default %.0f ms);"
+                                + " its history has been reset. Run with -Dadaptive.timeouts=false to rule the timeout out.%n",
+                        name, System.currentTimeMillis() - start, timeout, playwrightDefault);
+                TestEventStream.emit("adaptive-timeout", Map.of("callSite", name, "timeoutMillis", timeout,
+                        "defaultMillis", playwrightDefault));
+            }
+            throw e;
+        }
+    }
+
+    private static void record(String name, long millis) {
+        LAST_SEEN.put(name, LocalDate.now());
+        Deque<Long> durations = DURATIONS.computeIfAbsent(name, key -> new ArrayDeque<>());
+        synchronized (durations) {
+            durations.addLast(millis);
+            while (durations.size() > MAX_SAMPLES) {
+                durations.removeFirst();
+            }
+        }
+    }
+
+    private static String callSite() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> !frame.getClassName().equals(AdaptiveTimeouts.class.getName()))
+                .findFirst()
+                .map(frame -> simpleName(frame.getClassName()) + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse("unknown"));
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * Each entry is {@code <call site>=<date last seen>;<durations>}. An entry that can't be read is
+     * skipped: a file cut short by a killed JVM must not stop the tests from running.
+     */
+    private static Map<String, Deque<Long>> loadHistory() {
+        Map<String, Deque<Long>> history = new ConcurrentHashMap<>();
+        if (!Files.exists(HISTORY)) {
+            return history;
+        }
+        Properties recorded = new Properties();
+        try (Reader reader = Files.newBufferedReader(HISTORY)) {
+            recorded.load(reader);
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Could not read " + HISTORY + ", starting with no timeout history: " + e.getMessage());
+            return history;
+        }
+        for (String name : recorded.stringPropertyNames()) {
+            String entry = recorded.getProperty(name);
+            try {
+                int separator = entry.indexOf(';');
+                LocalDate lastSeen = LocalDate.parse(entry.substring(0, separator));
+                Deque<Long> durations = Arrays.stream(entry.substring(separator + 1).split(","))
+                        .filter(value -> !value.isBlank())
+                        .map(value -> Long.parseLong(value.trim()))
+                        .collect(Collectors.toCollection(ArrayDeque::new));
+                LAST_SEEN.put(name, lastSeen);
+                history.put(name, durations);
+            } catch (RuntimeException e) {
+                System.out.println("Skipping unreadable timeout history for " + name + ": " + entry);
+            }
+        }
+        return history;
+    }
+
+    /**
+     * Writes the history to a temporary file and moves it into place, so the file is never left half written.
+     */
+    private static void saveHistory() {
+        LocalDate oldest = LocalDate.now().minusDays(MAX_AGE_DAYS);
+        Properties recorded = new Properties();
+        DURATIONS.forEach((name, durations) -> {
+            LocalDate lastSeen = LAST_SEEN.getOrDefault(name, LocalDate.now());
+            if (lastSeen.isBefore(oldest)) {
+                return;
+            }
+            synchronized (durations) {
+                recorded.setProperty(name, lastSeen + ";"
+                        + durations.stream().map(String::valueOf).collect(Collectors.joining(",")));
+            }
+        });
+        try {
+            Path directory = HISTORY.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path partial = Files.createTempFile(directory, "history-", ".part");
+            try (Writer writer = Files.newBufferedWriter(partial)) {
+                recorded.store(writer, "Date last seen and recent passing durations (ms) per assertion or wait call site");
+            }
+            Files.move(partial, HISTORY, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
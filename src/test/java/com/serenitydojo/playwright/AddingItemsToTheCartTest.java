@@ -52,4 +52,15 @@ public class AddingItemsToTheCartTest {
         Assertions.assertThat(productNames).allMatch(s -> s.contains("Hammer") || s.contains("hammer"));
         productNames.forEach(System.out::println);
     }
+
+    @DisplayName("Start with items already in the cart")
+    @Test
+    void startWithItemsInTheCart(Page page) {
+        // When the cart is only a precondition, seed it through the API rather than clicking through the UI
+        ToolshopSeeder.forPage(page).seedCartWith("Bolt Cutters");
+
+        page.navigate("https://practicesoftwaretesting.com/");
+
+        assertThat(page.getByTestId("cart-quantity")).hasText("1");
+    }
 }
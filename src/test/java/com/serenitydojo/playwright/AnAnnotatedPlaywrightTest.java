@@ -8,8 +8,6 @@ import com.microsoft.playwright.junit.UsePlaywright;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
-import java.util.Arrays;
-
 @UsePlaywright(AnAnnotatedPlaywrightTest.CustomOptions.class)
 public class AnAnnotatedPlaywrightTest {
 
@@ -20,10 +18,9 @@ public class AnAnnotatedPlaywrightTest {
                     .setHeadless(false)
                     .setLaunchOptions(
                             new BrowserType.LaunchOptions()
-                                    .setArgs(Arrays.asList("--no-sandbox",
-                                            "--disable-gpu",
-                                            "--disable-extensions"))
-                    );
+                                    .setArgs(CrossBrowserMatrix.launchArgs())
+                    )
+                    .setBrowserName(CrossBrowserMatrix.browserName());
         }
     }
 
@@ -0,0 +1,54 @@
+package com.serenitydojo.playwright;
+
+import com.microsoft.playwright.Locator;
+import com.microsoft.playwright.assertions.LocatorAssertions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.microsoft.playwright.assertions.PlaywrightAssertions.assertThat;
+
+/**
+ * Compares the accessibility tree of a whole region of the page against a YAML baseline, in one call.
+ * <p>
+ * Baselines live in {@code src/test/resources/aria-snapshots/<TestClass>/<name>.yml}. They are compared
+ * with {@code matchesAriaSnapshot}, which is tolerant: a baseline only needs to list the parts of the tree
+ * we care about, in order, and text can be given as a {@code /regular expression/}. So once a baseline has
+ * been recorded it can be trimmed down by hand to what the test is really about.
+ * <p>
+ * A missing baseline fails the test. {@code -Daria.snapshots.record=true} records missing baselines and
+ * {@code -Daria.snapshots.update=true} re-records every baseline the run touches (see {@link Baselines}).
+ * <p>
+ * Tests that use it are tagged {@code aria-snapshots} and only run with {@code -Daria.snapshots=true}, until
+ * their baselines have been recorded against the live site and committed.
+ */
+public final class AriaSnapshots {
+
+    private static final Baselines BASELINES = Baselines.of("aria-baseline", "aria.snapshots", "aria-snapshots");
+
+    private AriaSnapshots() {
+    }
+
+    public static void assertMatchesBaseline(Locator region, Class<?> testClass, String name) {
+        assertMatchesBaseline(region, testClass, name, new LocatorAssertions.MatchesAriaSnapshotOptions());
+    }
+
+    public static void assertMatchesBaseline(Locator region, Class<?> testClass, String name,
+                                             LocatorAssertions.MatchesAriaSnapshotOptions options) {
+        Path baseline = BASELINES.fileFor(testClass, name + ".yml");
+        try {
+            if (BASELINES.shouldRecord(baseline)) {
+                Files.createDirectories(baseline.getParent());
+                Files.writeString(baseline, region.ariaSnapshot() + System.lineSeparator(), StandardCharsets.UTF_8);
+                BASELINES.recorded(baseline);
+                return;
+            }
+            assertThat(region).matchesAriaSnapshot(Files.readString(baseline, StandardCharsets.UTF_8), options);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not access ARIA snapshot baseline " + baseline, e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.serenitydojo.playwright;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+/**
+ * Where a kind of baseline (ARIA snapshots, screenshots) is kept, and whether a test should check against
+ * it or record it.
+ * <p>
+ * Baselines live in {@code src/test/resources/<kind>/<TestClass>/}; nested test classes share the folder of
+ * the class they are declared in. A missing baseline fails the test, so a fresh checkout or a CI run never
+ * passes without checking anything. Recording is opt-in, per kind:
+ * <ul>
+ *     <li>{@code -D<prefix>.record=true} records the baselines that are missing</li>
+ *     <li>{@code -D<prefix>.update=true} re-records every baseline the run touches</li>
+ *     <li>{@code -D<prefix>.dir} keeps them somewhere else</li>
+ * </ul>
+ * Recorded baselines are meant to be reviewed and committed.
+ */
+public final class Baselines {
+
+    private final String kind;
+    private final String propertyPrefix;
+    private final Path directory;
+    private final boolean recordMissing;
+    private final boolean update;
+
+    private Baselines(String kind, String propertyPrefix, Path directory, boolean recordMissing, boolean update) {
+        this.kind = kind;
+        this.propertyPrefix = propertyPrefix;
+        this.directory = directory;
+        this.recordMissing = recordMissing;
+        this.update = update;
+    }
+
+    /**
+     * @param kind           what the baselines are, for messages and for the artifact events ("aria-baseline")
+     * @param propertyPrefix the prefix of the system properties that control them ("aria.snapshots")
+     * @param folder         the folder under {@code src/test/resources} they live in by default
+     */
+    public static Baselines of(String kind, String propertyPrefix, String folder) {
+        return new Baselines(kind, propertyPrefix,
+                Paths.get(System.getProperty(propertyPrefix + ".dir", "src/test/resources/" + folder)),
+                Boolean.getBoolean(propertyPrefix + ".record"),
+                Boolean.getBoolean(propertyPrefix + ".update"));
+    }
+
+    public Path fileFor(Class<?> testClass, String fileName) {
+        return directory.resolve(topLevelClass(testClass).getSimpleName()).resolve(fileName);
+    }
+
+    /**
+     * Whether the baseline should be (re)written from what the test sees, rather than checked.
+     *
+     * @throws AssertionError if the baseline is missing and recording was not asked for
+     */
+    public boolean shouldRecord(Path baseline) {
+        if (update || (recordMissing && !Files.exists(baseline))) {
+            return true;
+        }
+        if (!Files.exists(baseline)) {
+            throw new AssertionError("No " + kind + " at " + baseline
+                    + " - run with -D" + propertyPrefix + ".record=true to record it, then review and commit it");
+        }
+        return false;
+    }
+
+    public void recorded(Path baseline) {
+        System.out.println("Recorded " + kind + " " + baseline);
+        TestEventStream.emit("artifact", Map.of("kind", kind, "path", baseline.toString()));
+    }
+
+    private static Class<?> topLevelClass(Class<?> testClass) {
+        Class<?> topLevel = testClass;
+        while (topLevel.getEnclosingClass() != null) {
+            topLevel = topLevel.getEnclosingClass();
+        }
+        return topLevel;
+    }
+}
@@ -0,0 +1,248 @@
+package com.serenitydojo.playwright;
+
+import com.microsoft.playwright.Locator;
+import com.microsoft.playwright.PlaywrightException;
+import com.microsoft.playwright.assertions.PlaywrightAssertions;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Checks a group of locator expectations together, in one retry loop with one shared timeout.
+ * <p>
+ * Each {@code assertThat(locator).isVisible()} call has its own retry loop, so four failing assertions
+ * take four timeouts to report, and only the first failure gets reported. Here, each poll reads the state
+ * of every locator in the group with a single {@code evaluateAll} call per locator (however many checks
+ * are made on it), and the group passes as soon as all the checks pass together. If they don't within
+ * the timeout, one failure lists every check that is still failing.
+ * <pre>
+ *     assertAll(
+ *             expect(firstNameError).isVisible(),
+ *             expect(firstNameField).hasValue("Sarah-Jane"),
+ *             expect(firstNameField).isEditable()
+ *     );
+ * </pre>
+ * The state checks are done in the page and follow the same rules as the Playwright assertions of the
+ * same names (for example, an element is visible when it has a non-empty bounding box and is not
+ * {@code visibility:hidden}), but are simplified versions of them. As with the Playwright assertions, a
+ * poll that can't read the page (for example because it is navigating) just counts as not passing yet,
+ * and the default timeout is the one set with {@link PlaywrightAssertions#setDefaultAssertionTimeout}.
+ */
+public final class BatchedAssertions {
+
+    public static final double PLAYWRIGHT_DEFAULT_TIMEOUT_MILLIS = 5_000;
+
+    private static final int[] POLLING_INTERVALS_MILLIS = {100, 250, 500, 1_000};
+
+    private static final String READ_STATE = """
+            elements => {
+                const element = elements[0];
+                if (!element) {
+                    return { count: 0 };
+                }
+                const style = window.getComputedStyle(element);
+                const box = element.getBoundingClientRect();
+                const disabled = (('disabled' in element) && element.disabled)
+                        || !!element.closest('fieldset[disabled]')
+                        || element.getAttribute('aria-disabled') === 'true';
+                const editable = !disabled && !element.readOnly
+                        && (element.isContentEditable || ['INPUT', 'TEXTAREA', 'SELECT'].includes(element.tagName));
+                return {
+                    count: elements.length,
+                    visible: box.width > 0 && box.height > 0 && style.visibility !== 'hidden',
+                    value: ('value' in element) ? String(element.value) : null,
+                    disabled: disabled,
+                    editable: editable,
+                    checked: !!element.checked,
+                    text: element.textContent
+                };
+            }
+            """;
+
+    private BatchedAssertions() {
+    }
+
+    public static ExpectationBuilder expect(Locator locator) {
+        return new ExpectationBuilder(locator);
+    }
+
+    public static void assertAll(Expectation... expectations) {
+        assertAll(defaultTimeout(), expectations);
+    }
+
+    /**
+     * The timeout set with {@link PlaywrightAssertions#setDefaultAssertionTimeout}. Playwright has no getter for
+     * it, so it is read from where Playwright keeps it, falling back to Playwright's own default.
+     */
+    static double defaultTimeout() {
+        try {
+            Field defaultTimeout = Class.forName("com.microsoft.playwright.impl.AssertionsTimeout").getDeclaredField("defaultTimeout");
+            defaultTimeout.setAccessible(true);
+            return defaultTimeout.getDouble(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return PLAYWRIGHT_DEFAULT_TIMEOUT_MILLIS;
+        }
+    }
+
+    public static void assertAll(double timeoutMillis, Expectation... expectations) {
+        long deadline = System.currentTimeMillis() + (long) timeoutMillis;
+        int poll = 0;
+        List<String> failures;
+        while (true) {
+            failures = failuresIn(expectations);
+            if (failures.isEmpty()) {
+                return;
+            }
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                break;
+            }
+            int interval = POLLING_INTERVALS_MILLIS[Math.min(poll++, POLLING_INTERVALS_MILLIS.length - 1)];
+            TestEventStream.emit("retry", Map.of("assertion", "assertAll", "attempt", poll, "failing", failures.size()));
+            pause(Math.min(interval, remaining));
+        }
+        throw new AssertionError(String.format("%d of %d expectations still failing after %.0f ms:%n  - %s",
+                failures.size(), expectations.length, timeoutMillis, String.join(System.lineSeparator() + "  - ", failures)));
+    }
+
+    private static List<String> failuresIn(Expectation[] expectations) {
+        Map<Locator, ElementState> states = new IdentityHashMap<>();
+        List<String> failures = new ArrayList<>();
+        for (Expectation expectation : expectations) {
+            ElementState state = states.computeIfAbsent(expectation.locator(), BatchedAssertions::readState);
+            if (!expectation.check().test(state)) {
+                failures.add(expectation.locator() + " " + expectation.description() + ", but was " + state);
+            }
+        }
+        return failures;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ElementState readState(Locator locator) {
+        Map<String, Object> state;
+        try {
+            state = (Map<String, Object>) locator.evaluateAll(READ_STATE);
+        } catch (PlaywrightException e) {
+            // e.g. "Execution context was destroyed" while the page navigates: try again on the next poll
+            return ElementState.unreadable(e.getMessage());
+        }
+        int count = ((Number) state.get("count")).intValue();
+        if (count == 0) {
+            return ElementState.NOT_FOUND;
+        }
+        return new ElementState(count,
+                Boolean.TRUE.equals(state.get("visible")),
+                (String) state.get("value"),
+                Boolean.TRUE.equals(state.get("disabled")),
+                Boolean.TRUE.equals(state.get("editable")),
+                Boolean.TRUE.equals(state.get("checked")),
+                (String) state.get("text"),
+                null);
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError("Interrupted while waiting for expectations", e);
+        }
+    }
+
+    private static String normalizeWhitespace(String text) {
+        return (text == null) ? null : text.replaceAll("\\s+", " ").trim();
+    }
+
+    public record Expectation(Locator locator, String description, Predicate<ElementState> check) {
+    }
+
+    /**
+     * The state of the first element a locator matches, as read in a single round trip.
+     */
+    public record ElementState(int count, boolean visible, String value, boolean disabled,
+                               boolean editable, boolean checked, String text, String error) {
+
+        static final ElementState NOT_FOUND = new ElementState(0, false, null, false, false, false, null, null);
+
+        // A count of -1 fails every check, including isHidden() and hasCount(0)
+        static ElementState unreadable(String error) {
+            return new ElementState(-1, false, null, false, false, false, null, error);
+        }
+
+        // Like the Playwright assertions, element checks are strict: the locator must match exactly one element
+        boolean single() {
+            return count == 1;
+        }
+
+        @Override
+        public String toString() {
+            if (error != null) {
+                return "unreadable (" + error.lines().findFirst().orElse(error) + ")";
+            }
+            if (count == 0) {
+                return "no matching element";
+            }
+            return String.format("%d element(s), visible=%s, value=%s, disabled=%s, editable=%s, checked=%s, text=\"%s\"",
+                    count, visible, value, disabled, editable, checked, normalizeWhitespace(text));
+        }
+    }
+
+    public static class ExpectationBuilder {
+        private final Locator locator;
+
+        ExpectationBuilder(Locator locator) {
+            this.locator = locator;
+        }
+
+        public Expectation isVisible() {
+            return expectation("to be visible", state -> state.single() && state.visible());
+        }
+
+        public Expectation isHidden() {
+            return expectation("to be hidden", state -> state.count() == 0 || (state.single() && !state.visible()));
+        }
+
+        public Expectation isEnabled() {
+            return expectation("to be enabled", state -> state.single() && !state.disabled());
+        }
+
+        public Expectation isDisabled() {
+            return expectation("to be disabled", state -> state.single() && state.disabled());
+        }
+
+        public Expectation isEditable() {
+            return expectation("to be editable", state -> state.single() && state.editable());
+        }
+
+        public Expectation isChecked() {
+            return expectation("to be checked", state -> state.single() && state.checked());
+        }
+
+        public Expectation hasValue(String value) {
+            return expectation("to have value \"" + value + "\"", state -> state.single() && Objects.equals(state.value(), value));
+        }
+
+        public Expectation hasText(String text) {
+            return expectation("to have text \"" + text + "\"",
+                    state -> state.single() && Objects.equals(normalizeWhitespace(state.text()), normalizeWhitespace(text)));
+        }
+
+        public Expectation containsText(String text) {
+            return expectation("to contain text \"" + text + "\"",
+                    state -> state.single() && normalizeWhitespace(state.text()).contains(normalizeWhitespace(text)));
+        }
+
+        public Expectation hasCount(int count) {
+            return expectation("to match " + count + " element(s)", state -> state.count() == count);
+        }
+
+        private Expectation expectation(String description, Predicate<ElementState> check) {
+            return new Expectation(locator, "expected " + description, check);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.serenitydojo.playwright;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reports how much CPU time and resident memory the browser processes used during each test.
+ * <p>
+ * Playwright starts its driver as a child of the JVM, and the browsers as children of the driver, so the
+ * whole tree is found by walking the JVM's descendant processes and reading their {@code /proc} entries.
+ * Usage is sampled when the test starts and ends, and in the background while it runs to catch the peak.
+ * The figures are published as a JUnit report entry. Tests whose resident memory grows by more than
+ * {@code resources.rss.threshold.mb} (256 MB by default) are flagged in the report and on the console.
+ * <p>
+ * On systems without {@code /proc} the extension does nothing.
+ */
+public class BrowserResourceSampler implements BeforeEachCallback, AfterEachCallback {
+
+    private static final Path PROC = Paths.get("/proc");
+    // USER_HZ, the unit of the CPU times in /proc/[pid]/stat, is 100 on every Linux we run on
+    private static final long CLOCK_TICKS_PER_SECOND = 100;
+    private static final long SAMPLE_INTERVAL_MILLIS =
+            Long.getLong("resources.sample.interval.ms", 250);
+    private static final long RSS_THRESHOLD_KB =
+            Long.getLong("resources.rss.threshold.mb", 256) * 1024;
+
+    private static final ScheduledExecutorService SAMPLER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "browser-resource-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(BrowserResourceSampler.class);
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (!Files.isDirectory(PROC)) {
+            return;
+        }
+        Sample start = sample();
+        AtomicLong peakRssKb = new AtomicLong(start.rssKb());
+        ScheduledFuture<?> sampling = SAMPLER.scheduleAtFixedRate(
+                () -> peakRssKb.accumulateAndGet(sample().rssKb(), Math::max),
+                SAMPLE_INTERVAL_MILLIS, SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        context.getStore(NAMESPACE).put(context.getUniqueId(), new Measurement(start, peakRssKb, sampling));
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        Measurement measurement = context.getStore(NAMESPACE).remove(context.getUniqueId(), Measurement.class);
+        if (measurement == null) {
+            return;
+        }
+        measurement.sampling().cancel(false);
+        Sample end = sample();
+        long peakRssKb = measurement.peakRssKb().accumulateAndGet(end.rssKb(), Math::max);
+        long cpuMillis = (end.cpuTicks() - measurement.start().cpuTicks()) * 1000 / CLOCK_TICKS_PER_SECOND;
+        long rssDeltaKb = end.rssKb() - measurement.start().rssKb();
+        boolean flagged = rssDeltaKb > RSS_THRESHOLD_KB;
+
+        context.publishReportEntry(Map.of(
+                "browser.cpu.ms", String.valueOf(cpuMillis),
+                "browser.rss.start.kb", String.valueOf(measurement.start().rssKb()),
+                "browser.rss.end.kb", String.valueOf(end.rssKb()),
+                "browser.rss.peak.kb", String.valueOf(peakRssKb),
+                "browser.rss.delta.kb", String.valueOf(rssDeltaKb),
+                "browser.processes", String.valueOf(end.processes()),
+                "browser.rss.flagged", String.valueOf(flagged)));
+        if (flagged) {
+            System.out.printf("WARNING: browser memory grew by %,d KB during %s (threshold %,d KB, peak %,d KB)%n",
+                    rssDeltaKb, context.getDisplayName(), RSS_THRESHOLD_KB, peakRssKb);
+        }
+    }
+
+    private static Sample sample() {
+        long cpuTicks = 0;
+        long rssKb = 0;
+        int processes = 0;
+        for (ProcessHandle process : ProcessHandle.current().descendants().toList()) {
+            Path processDirectory = PROC.resolve(String.valueOf(process.pid()));
+            try {
+                cpuTicks += cpuTicks(Files.readString(processDirectory.resolve("stat")));
+                rssKb += rssKb(Files.readAllLines(processDirectory.resolve("status")));
+                processes++;
+            } catch (IOException | RuntimeException e) {
+                // The process exited between listing and reading it
+            }
+        }
+        return new Sample(cpuTicks, rssKb, processes);
+    }
+
+    /**
+     * utime and stime are fields 14 and 15 of /proc/[pid]/stat. The command name in field 2 may contain
+     * spaces, so we count from the closing parenthesis.
+     */
+    static long cpuTicks(String stat) {
+        String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+        return Long.parseLong(fields[11]) + Long.parseLong(fields[12]);
+    }
+
+    static long rssKb(Iterable<String> status) {
+        for (String line : status) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.substring("VmRSS:".length()).replace("kB", "").trim());
+            }
+        }
+        return 0;
+    }
+
+    private record Sample(long cpuTicks, long rssKb, int processes) {
+    }
+
+    private record Measurement(Sample start, AtomicLong peakRssKb, ScheduledFuture<?> sampling) {
+    }
+}
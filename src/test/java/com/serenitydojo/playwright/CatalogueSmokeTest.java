@@ -0,0 +1,64 @@
+package com.serenitydojo.playwright;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Comparator;
+import java.util.List;
+
+@Tag("smoke")
+@EnabledIfSystemProperty(named = "smoke.crawl", matches = "true")
+public class CatalogueSmokeTest {
+    // Rather than checking a few products by name, visit every page we can reach from the home page
+    // and check that each one loads, quickly and without errors. It crawls hundreds of pages, so it only
+    // runs when asked for with -Dsmoke.crawl=true. Point -Dtoolshop.url at a local stand-in to
+    // smoke-test that instead of production.
+
+    private static final String TOOLSHOP_URL = System.getProperty("toolshop.url", "https://practicesoftwaretesting.com");
+    private static final long LOAD_TIME_BUDGET_MILLIS = Long.getLong("smoke.budget.ms", 5_000);
+
+    static List<SiteCrawler.PageVisit> visits;
+
+    @BeforeAll
+    static void crawlTheSite() throws InterruptedException {
+        visits = new SiteCrawler(TOOLSHOP_URL)
+                .withConcurrency(Integer.getInteger("smoke.concurrency", 4))
+                .withMaxPages(Integer.getInteger("smoke.max.pages", 300))
+                .crawl();
+
+        visits.stream()
+                .sorted(Comparator.comparingLong(SiteCrawler.PageVisit::loadMillis).reversed())
+                .forEach(System.out::println);
+    }
+
+    @DisplayName("The crawl should reach the products and categories")
+    @Test
+    void shouldReachProductsAndCategories() {
+        Assertions.assertThat(visits)
+                .extracting(SiteCrawler.PageVisit::url)
+                .anyMatch(url -> url.contains("/product/"))
+                .anyMatch(url -> url.contains("/category/"));
+    }
+
+    @DisplayName("Every page should load")
+    @Test
+    void everyPageShouldLoad() {
+        Assertions.assertThat(visits).allMatch(SiteCrawler.PageVisit::loaded);
+    }
+
+    @DisplayName("Every page should load within the budget")
+    @Test
+    void everyPageShouldLoadWithinBudget() {
+        Assertions.assertThat(visits).allMatch(visit -> visit.loadMillis() <= LOAD_TIME_BUDGET_MILLIS);
+    }
+
+    @DisplayName("No page should log errors to the console")
+    @Test
+    void noPageShouldLogErrors() {
+        Assertions.assertThat(visits).allMatch(visit -> visit.consoleErrors().isEmpty());
+    }
+}
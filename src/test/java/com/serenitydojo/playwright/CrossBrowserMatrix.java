@@ -0,0 +1,331 @@
+package com.serenitydojo.playwright;
+
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Playwright;
+import org.junit.platform.engine.discovery.DiscoverySelectors;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Runs the test classes against Chromium, Firefox and WebKit at the same time, in one JVM.
+ * <p>
+ * Every (engine, test class) pair is a task. Each engine may run up to {@code matrix.workers.per.engine}
+ * tasks at once, and the whole matrix up to {@code matrix.workers}. Whenever a slot frees up, the
+ * scheduler gives it to the engine with the most estimated work left per running task, using the class
+ * durations recorded by earlier runs, and within an engine it starts the longest classes first. The wall
+ * clock time therefore tends towards that of the slowest engine rather than the sum of all three.
+ * <p>
+ * The Playwright JUnit fixtures keep the Playwright instance in a thread local, so every task runs on a
+ * fresh thread with its engine set in {@link #browserName()}. Fixtures read the engine from there (or
+ * from {@code -Dbrowser} outside the matrix) instead of hard-wiring Chromium. Some test classes keep
+ * their browser in static fields instead, which the same class running on another engine at the same
+ * time would overwrite, so each task loads its own copy of the test class (and its nested classes).
+ * <p>
+ * Run it with:
+ * <pre>
+ *     mvn test-compile exec:java -Dexec.classpathScope=test \
+ *         -Dexec.mainClass=com.serenitydojo.playwright.CrossBrowserMatrix [-Dexec.args="SomeTest OtherTest"]
+ * </pre>
+ */
+public class CrossBrowserMatrix {
+
+    public static final List<String> ENGINES = List.of("chromium", "firefox", "webkit");
+
+    private static final ThreadLocal<String> CURRENT_ENGINE = new ThreadLocal<>();
+
+    private static final String TEST_PACKAGE = CrossBrowserMatrix.class.getPackageName();
+    private static final Path REPORT_DIRECTORY = Paths.get("target", "browser-matrix");
+    private static final Path TIMINGS = REPORT_DIRECTORY.resolve("timings.properties");
+    private static final long DEFAULT_ESTIMATE_MILLIS = 10_000;
+
+    /**
+     * The engine the current test should use: the matrix engine of this thread if there is one,
+     * otherwise the {@code browser} system property, otherwise Chromium.
+     */
+    public static String browserName() {
+        String engine = CURRENT_ENGINE.get();
+        return (engine != null) ? engine : System.getProperty("browser", "chromium");
+    }
+
+    public static BrowserType browserType(Playwright playwright) {
+        return switch (browserName()) {
+            case "firefox" -> playwright.firefox();
+            case "webkit" -> playwright.webkit();
+            default -> playwright.chromium();
+        };
+    }
+
+    /**
+     * The launch arguments we use for Chromium mean nothing to the other engines.
+     */
+    public static List<String> launchArgs() {
+        if ("chromium".equals(browserName())) {
+            return Arrays.asList("--no-sandbox", "--disable-gpu", "--disable-extensions");
+        }
+        return List.of();
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> testClasses = (args.length > 0)
+                ? Arrays.stream(args).map(name -> name.contains(".") ? name : TEST_PACKAGE + "." + name).toList()
+                : discoverTestClasses();
+        int totalWorkers = Integer.getInteger("matrix.workers", Runtime.getRuntime().availableProcessors());
+        int workersPerEngine = Integer.getInteger("matrix.workers.per.engine", Math.max(1, totalWorkers / 2));
+
+        List<TaskResult> results = new CrossBrowserMatrix(testClasses, totalWorkers, workersPerEngine).run();
+        System.exit(results.stream().allMatch(TaskResult::passed) ? 0 : 1);
+    }
+
+    private final Object lock = new Object();
+    private final Map<String, Deque<Task>> queues = new LinkedHashMap<>();
+    private final Map<String, Integer> running = new HashMap<>();
+    private final Properties timings = new Properties();
+    private final List<TaskResult> results = new ArrayList<>();
+    private final int totalWorkers;
+    private final int workersPerEngine;
+    private int runningTotal;
+
+    CrossBrowserMatrix(List<String> testClasses, int totalWorkers, int workersPerEngine) throws IOException {
+        this.totalWorkers = totalWorkers;
+        this.workersPerEngine = workersPerEngine;
+        if (Files.exists(TIMINGS)) {
+            try (Reader reader = Files.newBufferedReader(TIMINGS)) {
+                timings.load(reader);
+            }
+        }
+        for (String engine : ENGINES) {
+            List<Task> tasks = new ArrayList<>();
+            for (String testClass : testClasses) {
+                tasks.add(new Task(engine, testClass, estimate(engine, testClass)));
+            }
+            tasks.sort(Comparator.comparingLong(Task::estimatedMillis).reversed());
+            queues.put(engine, new ArrayDeque<>(tasks));
+            running.put(engine, 0);
+        }
+    }
+
+    List<TaskResult> run() throws InterruptedException, IOException {
+        long start = System.currentTimeMillis();
+        synchronized (lock) {
+            while (runningTotal > 0 || queues.values().stream().anyMatch(queue -> !queue.isEmpty())) {
+                Task next = (runningTotal < totalWorkers) ? nextTask() : null;
+                if (next == null) {
+                    lock.wait();
+                } else {
+                    start(next);
+                }
+            }
+        }
+        report(System.currentTimeMillis() - start);
+        return results;
+    }
+
+    /**
+     * Picks the longest remaining class of the engine that is furthest behind.
+     */
+    private Task nextTask() {
+        String busiestEngine = null;
+        double mostWorkPerWorker = -1;
+        for (var entry : queues.entrySet()) {
+            String engine = entry.getKey();
+            if (entry.getValue().isEmpty() || running.get(engine) >= workersPerEngine) {
+                continue;
+            }
+            long queuedMillis = entry.getValue().stream().mapToLong(Task::estimatedMillis).sum();
+            double workPerWorker = (double) queuedMillis / (running.get(engine) + 1);
+            if (workPerWorker > mostWorkPerWorker) {
+                mostWorkPerWorker = workPerWorker;
+                busiestEngine = engine;
+            }
+        }
+        return (busiestEngine == null) ? null : queues.get(busiestEngine).poll();
+    }
+
+    private void start(Task task) {
+        running.merge(task.engine(), 1, Integer::sum);
+        runningTotal++;
+        Thread worker = new Thread(() -> {
+            long start = System.currentTimeMillis();
+            TaskResult result = null;
+            try {
+                result = execute(task);
+            } catch (Throwable e) {
+                // A task that could not even run counts as failed, rather than leaving run() waiting for it
+                result = TaskResult.failed(task, System.currentTimeMillis() - start, e);
+                System.out.println(result);
+            } finally {
+                synchronized (lock) {
+                    running.merge(task.engine(), -1, Integer::sum);
+                    runningTotal--;
+                    if (result != null) {
+                        results.add(result);
+                        if (result.error() == null) {
+                            timings.setProperty(task.engine() + "." + task.testClass(), String.valueOf(result.elapsedMillis()));
+                        }
+                    }
+                    lock.notifyAll();
+                }
+            }
+        }, "matrix-" + task.engine() + "-" + task.testClass().substring(task.testClass().lastIndexOf('.') + 1));
+        worker.start();
+    }
+
+    private static TaskResult execute(Task task) {
+        CURRENT_ENGINE.set(task.engine());
+        long start = System.currentTimeMillis();
+        SummaryGeneratingListener summary = new SummaryGeneratingListener();
+        try (TaskClassLoader classLoader = new TaskClassLoader(task.testClass())) {
+            LauncherDiscoveryRequest request = LauncherDiscoveryRequestBuilder.request()
+                    .selectors(DiscoverySelectors.selectClass(classLoader.loadClass(task.testClass())))
+                    .build();
+            LauncherFactory.create().execute(request, summary);
+        } catch (ClassNotFoundException | IOException e) {
+            throw new IllegalStateException("Could not load " + task.testClass() + " for " + task.engine(), e);
+        } finally {
+            CURRENT_ENGINE.remove();
+        }
+        TaskResult result = new TaskResult(task, System.currentTimeMillis() - start, summary.getSummary(), null);
+        System.out.println(result);
+        return result;
+    }
+
+    private void report(long wallClockMillis) throws IOException {
+        Files.createDirectories(REPORT_DIRECTORY);
+        try (Writer writer = Files.newBufferedWriter(TIMINGS)) {
+            timings.store(writer, "Test class durations per engine, used to schedule the next matrix run");
+        }
+
+        StringWriter report = new StringWriter();
+        PrintWriter out = new PrintWriter(report);
+        for (String engine : ENGINES) {
+            List<TaskResult> engineResults = results.stream().filter(result -> result.task().engine().equals(engine)).toList();
+            long engineMillis = engineResults.stream().mapToLong(TaskResult::elapsedMillis).sum();
+            long failures = engineResults.stream().mapToLong(TaskResult::failureCount).sum();
+            out.printf("%-8s %3d classes, %4d failures, %,8d ms of test time%n", engine, engineResults.size(), failures, engineMillis);
+            for (TaskResult result : engineResults) {
+                if (result.error() != null) {
+                    out.printf("  [%s] %s: %s%n", engine, result.task().testClass(), result.error());
+                    continue;
+                }
+                result.summary().getFailures().forEach(failure ->
+                        out.printf("  [%s] %s: %s%n", engine, failure.getTestIdentifier().getDisplayName(), failure.getException()));
+            }
+        }
+        out.printf("Matrix finished in %,d ms%n", wallClockMillis);
+        out.flush();
+        Files.writeString(REPORT_DIRECTORY.resolve("summary.txt"), report.toString());
+        System.out.print(report);
+    }
+
+    private long estimate(String engine, String testClass) {
+        String recorded = timings.getProperty(engine + "." + testClass);
+        return (recorded != null) ? Long.parseLong(recorded) : DEFAULT_ESTIMATE_MILLIS;
+    }
+
+    private static List<String> discoverTestClasses() {
+        Launcher launcher = LauncherFactory.create();
+        TestPlan testPlan = launcher.discover(LauncherDiscoveryRequestBuilder.request()
+                .selectors(DiscoverySelectors.selectPackage(TEST_PACKAGE))
+                .build());
+        List<String> testClasses = new ArrayList<>();
+        for (TestIdentifier engine : testPlan.getRoots()) {
+            for (TestIdentifier child : testPlan.getChildren(engine)) {
+                child.getSource()
+                        .filter(ClassSource.class::isInstance)
+                        .map(source -> ((ClassSource) source).getClassName())
+                        .ifPresent(testClasses::add);
+            }
+        }
+        return testClasses;
+    }
+
+    record Task(String engine, String testClass, long estimatedMillis) {
+    }
+
+    /**
+     * Loads one test class and its nested classes afresh, so their static fields belong to this task alone.
+     * Everything else, including this class and the other helpers with shared state, comes from the parent.
+     */
+    private static class TaskClassLoader extends URLClassLoader {
+        private final String testClass;
+
+        TaskClassLoader(String testClass) {
+            super(new URL[]{CrossBrowserMatrix.class.getProtectionDomain().getCodeSource().getLocation()},
+                    CrossBrowserMatrix.class.getClassLoader());
+            this.testClass = testClass;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(testClass) && !name.startsWith(testClass + "$")) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if (loaded == null) {
+                    loaded = findClass(name);
+                }
+                if (resolve) {
+                    resolveClass(loaded);
+                }
+                return loaded;
+            }
+        }
+    }
+
+    /**
+     * The outcome of a task: the JUnit summary if the class ran, or the error that stopped it from running.
+     */
+    record TaskResult(Task task, long elapsedMillis, TestExecutionSummary summary, Throwable error) {
+
+        static TaskResult failed(Task task, long elapsedMillis, Throwable error) {
+            return new TaskResult(task, elapsedMillis, null, error);
+        }
+
+        boolean passed() {
+            return failureCount() == 0;
+        }
+
+        long failureCount() {
+            return (error != null) ? 1 : summary.getTotalFailureCount();
+        }
+
+        @Override
+        public String toString() {
+            if (error != null) {
+                return String.format("[%s] %s: could not run in %,d ms: %s", task.engine(), task.testClass(), elapsedMillis, error);
+            }
+            return String.format("[%s] %s: %d tests, %d failed, %d skipped in %,d ms",
+                    task.engine(), task.testClass(), summary.getTestsFoundCount(), summary.getTotalFailureCount(),
+                    summary.getTestsSkippedCount(), elapsedMillis);
+        }
+    }
+}
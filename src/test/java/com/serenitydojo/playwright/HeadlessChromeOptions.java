@@ -4,18 +4,14 @@ import com.microsoft.playwright.BrowserType;
 import com.microsoft.playwright.junit.Options;
 import com.microsoft.playwright.junit.OptionsFactory;
 
-import java.util.Arrays;
-
 public class HeadlessChromeOptions implements OptionsFactory {
     @Override
     public Options getOptions() {
         return new Options().setLaunchOptions(
                 new BrowserType.LaunchOptions()
-                        .setArgs(Arrays.asList("--no-sandbox",
-                                "--disable-gpu",
-                                "--disable-extensions")
-                        )
+                        .setArgs(CrossBrowserMatrix.launchArgs())
         ).setHeadless(true)
+        .setBrowserName(CrossBrowserMatrix.browserName())
         .setTestIdAttribute("data-test");
     }
 }
@@ -0,0 +1,173 @@
+package com.serenitydojo.playwright;
+
+import com.google.gson.JsonObject;
+import com.microsoft.playwright.APIResponse;
+import com.microsoft.playwright.CDPSession;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Route;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Slows the network down for a page, and times the waits of a test against the moment the data they
+ * were waiting for actually arrived.
+ * <p>
+ * Throttling the whole page on Chromium uses the DevTools network conditions, which is what Chrome's own
+ * throttling menu does. Throttling only some URLs (for example {@code "**&#47;products**"} to simulate a
+ * slow API), or any URL on Firefox and WebKit, routes the matching requests through a handler that waits
+ * for the latency and jitter, fetches the real response, and then waits for the time the body would take
+ * at the profile's bandwidth. Playwright runs route handlers one at a time, so routed requests are also
+ * serialised; that makes routed profiles slightly harsher than a real slow link.
+ * <pre>
+ *     var network = NetworkConditions.apply(page, NetworkConditions.Profile.SLOW_API, "**&#47;products**");
+ *     network.timeWait("product cards", () -> page.waitForSelector(".card"));
+ *     network.report().forEach(System.out::println);
+ * </pre>
+ */
+public class NetworkConditions {
+
+    public enum Profile {
+        NO_THROTTLING(0, 0, 0),
+        REGULAR_4G(50, 4_000, 20),
+        FAST_3G(150, 1_600, 50),
+        SLOW_3G(400, 400, 150),
+        SLOW_API(1_500, 0, 500);
+
+        final int latencyMillis;
+        final int downloadKbps;
+        final int jitterMillis;
+
+        Profile(int latencyMillis, int downloadKbps, int jitterMillis) {
+            this.latencyMillis = latencyMillis;
+            this.downloadKbps = downloadKbps;
+            this.jitterMillis = jitterMillis;
+        }
+
+        boolean throttles() {
+            return latencyMillis > 0 || downloadKbps > 0 || jitterMillis > 0;
+        }
+    }
+
+    private final Profile profile;
+    // Seeded, so a profile delays the same requests by the same amounts on every run
+    private final Random jitter = new Random(42);
+    private final List<Long> arrivals = new ArrayList<>();
+    private final List<WaitTiming> waits = new ArrayList<>();
+
+    private NetworkConditions(Profile profile) {
+        this.profile = profile;
+    }
+
+    /**
+     * Throttles every request the page makes.
+     */
+    public static NetworkConditions apply(Page page, Profile profile) {
+        NetworkConditions conditions = new NetworkConditions(profile);
+        if (!profile.throttles()) {
+            page.onRequestFinished(request -> conditions.arrived());
+        } else if ("chromium".equals(page.context().browser().browserType().name())) {
+            conditions.emulateWithDevTools(page);
+        } else {
+            conditions.routeThrough(page, "**/*");
+        }
+        return conditions;
+    }
+
+    /**
+     * Throttles only the requests whose URL matches the glob pattern.
+     */
+    public static NetworkConditions apply(Page page, Profile profile, String urlPattern) {
+        NetworkConditions conditions = new NetworkConditions(profile);
+        conditions.routeThrough(page, urlPattern);
+        return conditions;
+    }
+
+    private void emulateWithDevTools(Page page) {
+        CDPSession devTools = page.context().newCDPSession(page);
+        devTools.send("Network.enable");
+        JsonObject conditions = new JsonObject();
+        conditions.addProperty("offline", false);
+        // DevTools has no jitter, so we add the average jitter to the latency
+        conditions.addProperty("latency", profile.latencyMillis + profile.jitterMillis / 2);
+        conditions.addProperty("downloadThroughput", profile.downloadKbps > 0 ? profile.downloadKbps * 1024 / 8 : -1);
+        conditions.addProperty("uploadThroughput", -1);
+        devTools.send("Network.emulateNetworkConditions", conditions);
+        page.onRequestFinished(request -> arrived());
+    }
+
+    private void routeThrough(Page page, String urlPattern) {
+        page.route(urlPattern, route -> {
+            pause(profile.latencyMillis + (profile.jitterMillis > 0 ? jitter.nextInt(profile.jitterMillis) : 0));
+            APIResponse response = route.fetch();
+            if (profile.downloadKbps > 0) {
+                pause(response.body().length * 8L / profile.downloadKbps);
+            }
+            route.fulfill(new Route.FulfillOptions().setResponse(response));
+            arrived();
+        });
+    }
+
+    private synchronized void arrived() {
+        arrivals.add(System.currentTimeMillis());
+    }
+
+    public void timeWait(String description, Runnable wait) {
+        timeWait(description, () -> {
+            wait.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the wait and records how long it took, and how long after the last throttled response it returned.
+     */
+    public <T> T timeWait(String description, Supplier<T> wait) {
+        long start = System.currentTimeMillis();
+        T result = wait.get();
+        long end = System.currentTimeMillis();
+        synchronized (this) {
+            long lastArrival = arrivals.stream().filter(arrival -> arrival <= end).reduce((first, second) -> second).orElse(start);
+            WaitTiming timing = new WaitTiming(description, end - start, end - Math.max(lastArrival, start));
+            waits.add(timing);
+            TestEventStream.emit("wait", Map.of(
+                    "description", description,
+                    "profile", profile.name(),
+                    "waitedMillis", timing.waitedMillis(),
+                    "afterDataMillis", timing.afterDataMillis()));
+        }
+        return result;
+    }
+
+    public synchronized List<WaitTiming> waits() {
+        return List.copyOf(waits);
+    }
+
+    public synchronized List<String> report() {
+        return waits.stream()
+                .map(wait -> String.format("[%s] %s", profile, wait))
+                .toList();
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @param waitedMillis how long the wait call blocked
+     * @param afterDataMillis how long it kept waiting after the last response had arrived
+     */
+    public record WaitTiming(String description, long waitedMillis, long afterDataMillis) {
+        @Override
+        public String toString() {
+            return String.format("%s: waited %d ms, %d ms after the data arrived", description, waitedMillis, afterDataMillis);
+        }
+    }
+}
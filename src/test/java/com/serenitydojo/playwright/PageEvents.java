@@ -0,0 +1,192 @@
+package com.serenitydojo.playwright;
+
+import com.microsoft.playwright.ConsoleMessage;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.Response;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestWatcher;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the last few console messages, page errors and network events of a page, so we can see what
+ * the page was doing when a test failed.
+ * <p>
+ * Listeners only copy a reference to the event object and a timestamp into preallocated arrays; nothing
+ * is formatted until {@link #dump()} is called. Once the buffer is full the oldest events are overwritten.
+ * Playwright delivers events on the thread that drives the page, so the buffer needs no locking.
+ * <p>
+ * Register {@link DumpOnFailure} on the test class and call {@link #recordFor(Page)} in a
+ * {@code @BeforeEach} method to have the events printed whenever a test fails.
+ */
+public class PageEvents {
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private static final byte CONSOLE = 0;
+    private static final byte PAGE_ERROR = 1;
+    private static final byte REQUEST = 2;
+    private static final byte RESPONSE = 3;
+    private static final byte REQUEST_FAILED = 4;
+
+    private static final ThreadLocal<List<PageEvents>> ACTIVE_RECORDERS = ThreadLocal.withInitial(ArrayList::new);
+
+    private final byte[] types;
+    private final long[] timestamps;
+    private final Object[] events;
+    private final int mask;
+    private long written;
+
+    private int consoleErrorCount;
+    private int pageErrorCount;
+    private int failedRequestCount;
+    private int errorResponseCount;
+
+    private PageEvents(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.types = new byte[size];
+        this.timestamps = new long[size];
+        this.events = new Object[size];
+        this.mask = size - 1;
+    }
+
+    public static PageEvents recordFor(Page page) {
+        return recordFor(page, DEFAULT_CAPACITY);
+    }
+
+    public static PageEvents recordFor(Page page, int capacity) {
+        PageEvents recorder = new PageEvents(capacity);
+        page.onConsoleMessage(message -> {
+            if ("error".equals(message.type())) {
+                recorder.consoleErrorCount++;
+            }
+            recorder.record(CONSOLE, message);
+        });
+        page.onPageError(error -> {
+            recorder.pageErrorCount++;
+            recorder.record(PAGE_ERROR, error);
+        });
+        page.onRequest(request -> recorder.record(REQUEST, request));
+        page.onResponse(response -> {
+            if (response.status() >= 400) {
+                recorder.errorResponseCount++;
+            }
+            recorder.record(RESPONSE, response);
+        });
+        page.onRequestFailed(request -> {
+            recorder.failedRequestCount++;
+            recorder.record(REQUEST_FAILED, request);
+        });
+        page.onFrameNavigated(frame -> {
+            if (frame == page.mainFrame()) {
+                TestEventStream.emit("navigation", Map.of("url", frame.url()));
+            }
+        });
+        ACTIVE_RECORDERS.get().add(recorder);
+        return recorder;
+    }
+
+    private void record(byte type, Object event) {
+        int slot = (int) (written++ & mask);
+        types[slot] = type;
+        timestamps[slot] = System.currentTimeMillis();
+        events[slot] = event;
+    }
+
+    public int consoleErrorCount() {
+        return consoleErrorCount;
+    }
+
+    public int pageErrorCount() {
+        return pageErrorCount;
+    }
+
+    public int failedRequestCount() {
+        return failedRequestCount;
+    }
+
+    public int errorResponseCount() {
+        return errorResponseCount;
+    }
+
+    public int errorCount() {
+        return consoleErrorCount + pageErrorCount + failedRequestCount + errorResponseCount;
+    }
+
+    public long totalEvents() {
+        return written;
+    }
+
+    /**
+     * Formats the buffered events, oldest first.
+     */
+    public List<String> dump() {
+        int retained = (int) Math.min(written, events.length);
+        List<String> lines = new ArrayList<>(retained);
+        for (long i = written - retained; i < written; i++) {
+            int slot = (int) (i & mask);
+            lines.add(Instant.ofEpochMilli(timestamps[slot]) + " " + describe(types[slot], events[slot]));
+        }
+        return lines;
+    }
+
+    private static String describe(byte type, Object event) {
+        return switch (type) {
+            case CONSOLE -> {
+                ConsoleMessage message = (ConsoleMessage) event;
+                yield "console." + message.type() + " " + message.text();
+            }
+            case PAGE_ERROR -> "pageerror " + event;
+            case REQUEST -> {
+                Request request = (Request) event;
+                yield "request " + request.method() + " " + request.url();
+            }
+            case RESPONSE -> {
+                Response response = (Response) event;
+                yield "response " + response.status() + " " + response.url();
+            }
+            case REQUEST_FAILED -> {
+                Request request = (Request) event;
+                yield "requestfailed " + request.method() + " " + request.url() + " " + request.failure();
+            }
+            default -> "unknown " + event;
+        };
+    }
+
+    /**
+     * Prints the events of every page recorded during a test if that test fails.
+     */
+    public static class DumpOnFailure implements BeforeEachCallback, TestWatcher {
+
+        @Override
+        public void beforeEach(ExtensionContext context) {
+            ACTIVE_RECORDERS.get().clear();
+        }
+
+        @Override
+        public void testFailed(ExtensionContext context, Throwable cause) {
+            for (PageEvents recorder : ACTIVE_RECORDERS.get()) {
+                System.out.printf("Page events for %s (%d errors, last %d of %d events):%n",
+                        context.getDisplayName(), recorder.errorCount(),
+                        Math.min(recorder.totalEvents(), recorder.events.length), recorder.totalEvents());
+                recorder.dump().forEach(line -> System.out.println("    " + line));
+            }
+            ACTIVE_RECORDERS.get().clear();
+        }
+
+        @Override
+        public void testSuccessful(ExtensionContext context) {
+            ACTIVE_RECORDERS.get().clear();
+        }
+
+        @Override
+        public void testAborted(ExtensionContext context, Throwable cause) {
+            ACTIVE_RECORDERS.get().clear();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.serenitydojo.playwright;
 
 import com.microsoft.playwright.Page;
+import com.microsoft.playwright.assertions.LocatorAssertions;
 import com.microsoft.playwright.junit.UsePlaywright;
 import com.microsoft.playwright.options.LoadState;
 import org.assertj.core.api.Assertions;
@@ -13,6 +14,8 @@ import java.util.Comparator;
 import java.util.List;
 
 import static com.microsoft.playwright.assertions.PlaywrightAssertions.assertThat;
+import static com.serenitydojo.playwright.BatchedAssertions.assertAll;
+import static com.serenitydojo.playwright.BatchedAssertions.expect;
 
 @UsePlaywright(HeadlessChromeOptions.class)
 public class PlaywrightAssertionsTest {
@@ -34,12 +37,31 @@ public class PlaywrightAssertionsTest {
 
             firstNameField.fill("Sarah-Jane");
 
-            assertThat(firstNameField).hasValue("Sarah-Jane"); // This uses PlaywrightAssertions.assertThat because the parameter is a page locator
+            // This uses PlaywrightAssertions.assertThat because the parameter is a page locator.
+            // The timeout is learned from earlier runs, so if this ever breaks it fails fast
+            AdaptiveTimeouts.assertion(timeout -> assertThat(firstNameField).hasValue("Sarah-Jane",
+                    new LocatorAssertions.HasValueOptions().setTimeout(timeout)));
             // assertThat(firstNameField).isDisabled(); // This will fail and it will take longer to run
             assertThat(firstNameField).not().isDisabled(); // notice the "not()" part, which is cool
             assertThat(firstNameField).isVisible();
             assertThat(firstNameField).isEditable();
         }
+
+        @DisplayName("Checking several things about a field at once")
+        @Test
+        void fieldValuesAllAtOnce(Page page) {
+            var firstNameField = page.getByLabel("First name");
+
+            firstNameField.fill("Sarah-Jane");
+
+            // Same checks as above, but polled together: the field state is read once per poll, not once per check
+            assertAll(
+                    expect(firstNameField).hasValue("Sarah-Jane"),
+                    expect(firstNameField).isEnabled(),
+                    expect(firstNameField).isVisible(),
+                    expect(firstNameField).isEditable()
+            );
+        }
     }
 
     @DisplayName("Making assertions about data values")
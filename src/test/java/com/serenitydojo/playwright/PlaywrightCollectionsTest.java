@@ -5,13 +5,15 @@ import com.microsoft.playwright.options.AriaRole;
 import com.microsoft.playwright.options.SelectOption;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
 
-import java.util.Arrays;
 import java.util.List;
 import java.util.regex.Pattern;
 
 import static com.microsoft.playwright.assertions.PlaywrightAssertions.assertThat;
 
+@ExtendWith(BrowserResourceSampler.class)
 public class PlaywrightCollectionsTest {
 
     protected static Playwright playwright;
@@ -23,9 +25,9 @@ public class PlaywrightCollectionsTest {
     @BeforeAll
     static void setUpBrowser() {
         playwright = Playwright.create();
-        browser = playwright.chromium().launch(
+        browser = CrossBrowserMatrix.browserType(playwright).launch(
                 new BrowserType.LaunchOptions().setHeadless(true)
-                        .setArgs(Arrays.asList("--no-sandbox", "--disable-extensions", "--disable-gpu"))
+                        .setArgs(CrossBrowserMatrix.launchArgs())
         );
         playwright.selectors().setTestIdAttribute("data-test");
     }
@@ -124,6 +126,17 @@ public class PlaywrightCollectionsTest {
                             " Thor Hammer "
                     });
         }
+
+        @DisplayName("and comparing the whole product grid with an ARIA snapshot")
+        @Test
+        @Tag("aria-snapshots")
+        @EnabledIfSystemProperty(named = "aria.snapshots", matches = "true")
+        void withAriaSnapshot() {
+            // One snapshot of the grid's accessibility tree instead of one lookup per product
+            Locator productGrid = page.locator(".card").first().locator("xpath=..");
+
+            AriaSnapshots.assertMatchesBaseline(productGrid, PlaywrightCollectionsTest.class, "product-grid");
+        }
     }
 
 }
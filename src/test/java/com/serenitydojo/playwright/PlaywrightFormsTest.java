@@ -1,22 +1,36 @@
 package com.serenitydojo.playwright;
 
+import com.microsoft.playwright.Locator;
 import com.microsoft.playwright.Page;
 import com.microsoft.playwright.junit.UsePlaywright;
 import com.microsoft.playwright.options.AriaRole;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
 
 import static com.microsoft.playwright.assertions.PlaywrightAssertions.assertThat;
+import static com.serenitydojo.playwright.BatchedAssertions.assertAll;
+import static com.serenitydojo.playwright.BatchedAssertions.expect;
 
 @UsePlaywright(HeadlessChromeOptions.class)
 public class PlaywrightFormsTest {
+    private static final String POST_ATTACHMENT = """
+            ([selector, url]) => {
+                const data = new FormData();
+                data.append('attachment', document.querySelector(selector).files[0]);
+                return fetch(url, { method: 'POST', body: data }).then(response => response.status);
+            }""";
+
     @DisplayName("Interacting with text fields")
     @Nested
     class WhenInteractingWithTextFields {
@@ -78,6 +92,27 @@ public class PlaywrightFormsTest {
             org.assertj.core.api.Assertions.assertThat(uploadedFile).endsWith("sample-data.txt");
         }
 
+        @DisplayName("Uploading a large attachment")
+        @Test
+        void uploadLargeAttachment(Page page, TestReporter reporter){
+            // Large files are generated on disk the first time they are needed and then reused,
+            // so they never end up in the repo or on the heap.
+            Path fileToUpload = UploadPayloads.ofMegabytes(50);
+
+            // The Toolshop only accepts empty attachments, so the file is posted to a local server that
+            // reads the whole body before it answers
+            try (UploadSink sink = UploadSink.start()) {
+                var upload = UploadPayloads.upload(page, "#attachment", fileToUpload, sink.url(),
+                        () -> page.evaluate(POST_ATTACHMENT, List.of("#attachment", sink.url())));
+
+                reporter.publishEntry("upload.megabytes.per.second", String.format("%.1f", upload.megabytesPerSecond()));
+                org.assertj.core.api.Assertions.assertThat(upload.status()).isEqualTo(204);
+                // The body is the file plus a little multipart framing
+                org.assertj.core.api.Assertions.assertThat(sink.receivedBytes())
+                        .isBetween(upload.sizeInBytes(), upload.sizeInBytes() + 1024);
+            }
+        }
+
         @DisplayName("Mandatory Fields")
         @Test
         void mandatoryFields(Page page){
@@ -103,6 +138,31 @@ public class PlaywrightFormsTest {
             assertThat(errorMessageMessage).isVisible();
         }
 
+        @DisplayName("Mandatory Fields - all messages checked at once")
+        @Test
+        void mandatoryFieldsAllAtOnce(Page page){
+            page.getByText("Send").click();
+
+            // Same checks as above, but in one retry loop, reporting every missing message at once if it fails
+            assertAll(
+                    expect(page.getByRole(AriaRole.ALERT).getByText("First name is required")).isVisible(),
+                    expect(page.getByRole(AriaRole.ALERT).getByText("Last name is required")).isVisible(),
+                    expect(page.getByRole(AriaRole.ALERT).getByText("Email is required")).isVisible(),
+                    expect(page.getByRole(AriaRole.ALERT).getByText("Message is required")).isVisible()
+            );
+        }
+
+        @DisplayName("Contact form structure")
+        @Test
+        @Tag("aria-snapshots")
+        @EnabledIfSystemProperty(named = "aria.snapshots", matches = "true")
+        void contactFormStructure(Page page){
+            // Checks every label, field and button of the form against a recorded snapshot of its accessibility tree
+            var contactForm = page.locator("form").filter(new Locator.FilterOptions().setHas(page.getByLabel("First name")));
+
+            AriaSnapshots.assertMatchesBaseline(contactForm, PlaywrightFormsTest.class, "contact-form");
+        }
+
         @DisplayName("Mandatory Fields - Parameterized Test")
         @ParameterizedTest
         @ValueSource(strings = {"First name", "Last name", "Email", "Message"})
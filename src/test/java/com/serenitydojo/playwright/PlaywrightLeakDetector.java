@@ -0,0 +1,189 @@
+package com.serenitydojo.playwright;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.impl.junit.BrowserExtension;
+import com.microsoft.playwright.impl.junit.PageExtension;
+import com.microsoft.playwright.junit.UsePlaywright;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds pages and browser contexts that a test opened but never closed.
+ * <p>
+ * Pass each page or context through {@link #track} as it is created. Pages opened by a tracked context
+ * (popups, {@code target=_blank} links) are tracked automatically. After each test, anything still open
+ * is reported together with the stack trace of the code that opened it. Depending on how the detector
+ * was created, leaked objects are then closed, and the test fails.
+ * <pre>
+ *     &#64;RegisterExtension
+ *     static PlaywrightLeakDetector leaks = PlaywrightLeakDetector.closingLeaks();
+ *
+ *     &#64;BeforeEach
+ *     void setup() {
+ *         page = leaks.track(browserContext.newPage());
+ *     }
+ * </pre>
+ * Tests that get their page from {@code @UsePlaywright} are covered without any of this: the detector is
+ * also registered for every test class through {@code META-INF/services}, and for those classes it creates
+ * the fixture page up front, then tracks every other page opened in the fixture context and every other
+ * context opened on the fixture browser. The fixture page and context themselves are left to Playwright,
+ * which closes them once the test is over.
+ * <p>
+ * Setting {@code -Dplaywright.leaks.strict=true} makes every detector fail tests that leak.
+ */
+public class PlaywrightLeakDetector implements BeforeEachCallback, AfterEachCallback {
+
+    private static final boolean STRICT_BY_DEFAULT = Boolean.getBoolean("playwright.leaks.strict");
+
+    private final boolean closeLeaks;
+    private final boolean failOnLeaks;
+    private final Map<Object, Throwable> openObjects = new LinkedHashMap<>();
+    private final ThreadLocal<Set<BrowserContext>> contextsBeforeTest = new ThreadLocal<>();
+
+    /**
+     * The detector registered through {@code META-INF/services}: it closes leaks, and only looks at
+     * {@code @UsePlaywright} tests.
+     */
+    public PlaywrightLeakDetector() {
+        this(true, false);
+    }
+
+    private PlaywrightLeakDetector(boolean closeLeaks, boolean failOnLeaks) {
+        this.closeLeaks = closeLeaks;
+        this.failOnLeaks = failOnLeaks || STRICT_BY_DEFAULT;
+    }
+
+    /**
+     * Reports leaks but leaves them open.
+     */
+    public static PlaywrightLeakDetector reportingLeaks() {
+        return new PlaywrightLeakDetector(false, false);
+    }
+
+    /**
+     * Reports leaks and closes them so they don't pile up over the rest of the run.
+     */
+    public static PlaywrightLeakDetector closingLeaks() {
+        return new PlaywrightLeakDetector(true, false);
+    }
+
+    /**
+     * Reports and closes leaks, then fails the test that leaked.
+     */
+    public static PlaywrightLeakDetector strict() {
+        return new PlaywrightLeakDetector(true, true);
+    }
+
+    public Page track(Page page) {
+        synchronized (openObjects) {
+            openObjects.put(page, new Throwable("Page opened here"));
+        }
+        page.onClose(this::forget);
+        return page;
+    }
+
+    public BrowserContext track(BrowserContext browserContext) {
+        synchronized (openObjects) {
+            openObjects.put(browserContext, new Throwable("BrowserContext opened here"));
+        }
+        browserContext.onPage(this::track);
+        browserContext.onClose(this::forget);
+        return browserContext;
+    }
+
+    private void forget(Object closed) {
+        synchronized (openObjects) {
+            openObjects.remove(closed);
+        }
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        synchronized (openObjects) {
+            openObjects.clear();
+        }
+        if (usesPlaywrightFixtures(context.getRequiredTestClass())) {
+            // Create the fixture page now, so only the pages opened after it are tracked
+            BrowserContext fixtureContext = PageExtension.getOrCreatePage(context).context();
+            fixtureContext.onPage(this::track);
+            contextsBeforeTest.set(Set.copyOf(BrowserExtension.getOrCreateBrowser(context).contexts()));
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        Set<BrowserContext> contextsBefore = contextsBeforeTest.get();
+        if (contextsBefore != null) {
+            contextsBeforeTest.remove();
+            trackContextsOpenedSince(contextsBefore, BrowserExtension.getOrCreateBrowser(context));
+        }
+        Map<Object, Throwable> leaks;
+        synchronized (openObjects) {
+            leaks = new LinkedHashMap<>(openObjects);
+            openObjects.clear();
+        }
+        if (leaks.isEmpty()) {
+            return;
+        }
+
+        List<String> descriptions = new ArrayList<>();
+        leaks.forEach((leak, openedAt) -> descriptions.add(describe(leak, openedAt)));
+        System.out.printf("%s left %d Playwright object(s) open:%n%s%n",
+                context.getDisplayName(), leaks.size(), String.join(System.lineSeparator(), descriptions));
+
+        if (closeLeaks) {
+            // Close pages first, so closing a context doesn't report them a second time
+            leaks.keySet().stream().filter(Page.class::isInstance).map(Page.class::cast)
+                    .filter(page -> !page.isClosed())
+                    .forEach(Page::close);
+            leaks.keySet().stream().filter(BrowserContext.class::isInstance).map(BrowserContext.class::cast)
+                    .forEach(BrowserContext::close);
+        }
+        if (failOnLeaks) {
+            throw new AssertionError(context.getDisplayName() + " left " + leaks.size()
+                    + " Playwright object(s) open:" + System.lineSeparator()
+                    + String.join(System.lineSeparator(), descriptions));
+        }
+    }
+
+    // Browser has no event for new contexts, so the ones a test opened are found by comparing before and after
+    private void trackContextsOpenedSince(Set<BrowserContext> contextsBefore, Browser browser) {
+        synchronized (openObjects) {
+            browser.contexts().stream()
+                    .filter(browserContext -> !contextsBefore.contains(browserContext))
+                    .forEach(browserContext -> {
+                        openObjects.putIfAbsent(browserContext,
+                                new Throwable("BrowserContext opened during the test (not tracked where)"));
+                        browserContext.pages().forEach(page -> openObjects.putIfAbsent(page,
+                                new Throwable("Page opened during the test in an untracked context")));
+                    });
+        }
+    }
+
+    private static boolean usesPlaywrightFixtures(Class<?> testClass) {
+        for (Class<?> type = testClass; type != null; type = type.getEnclosingClass()) {
+            if (type.isAnnotationPresent(UsePlaywright.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String describe(Object leak, Throwable openedAt) {
+        StringWriter stackTrace = new StringWriter();
+        openedAt.printStackTrace(new PrintWriter(stackTrace));
+        String name = (leak instanceof Page page) ? "Page " + page.url() : "BrowserContext " + leak;
+        return "  - " + name + System.lineSeparator() + stackTrace.toString().indent(4).stripTrailing();
+    }
+}
@@ -10,7 +10,6 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.api.parallel.ExecutionMode;
 
-import java.util.Arrays;
 import java.util.List;
 import java.util.regex.Pattern;
 
@@ -28,9 +27,9 @@ public class PlaywrightLocatorsTest {
     @BeforeAll
     static void setUpBrowser() {
         playwright = Playwright.create();
-        browser = playwright.chromium().launch(
+        browser = CrossBrowserMatrix.browserType(playwright).launch(
                 new BrowserType.LaunchOptions().setHeadless(false)
-                        .setArgs(Arrays.asList("--no-sandbox", "--disable-extensions", "--disable-gpu"))
+                        .setArgs(CrossBrowserMatrix.launchArgs())
         );
     }
 
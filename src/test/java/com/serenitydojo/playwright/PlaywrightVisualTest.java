@@ -0,0 +1,43 @@
+package com.serenitydojo.playwright;
+
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.junit.UsePlaywright;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+@UsePlaywright(HeadlessChromeOptions.class)
+@Tag("visual")
+@EnabledIfSystemProperty(named = "visual.baselines", matches = "true")
+public class PlaywrightVisualTest {
+    // Baselines live under src/test/resources/visual-baselines. None are committed yet, so this class only
+    // runs when asked for with -Dvisual.baselines=true; add -Dvisual.baselines.record=true to record them.
+
+    @BeforeEach
+    void openHomePage(Page page) {
+        page.setViewportSize(1920, 1080);
+        page.navigate("https://practicesoftwaretesting.com");
+        page.waitForSelector(".card-img-top");
+    }
+
+    @DisplayName("The catalogue page should look the same as last time")
+    @Test
+    void catalogueLooksTheSame(Page page) {
+        // Prices can change, so they are masked out
+        VisualSnapshots.assertMatchesBaseline(page, PlaywrightVisualTest.class, "catalogue",
+                page.getByTestId("product-price"));
+    }
+
+    @DisplayName("A product page should look the same as last time")
+    @Test
+    void productPageLooksTheSame(Page page) {
+        page.getByText("Bolt Cutters").click();
+        page.waitForSelector("[data-test=product-name]");
+
+        // The related products are picked at random
+        VisualSnapshots.assertMatchesBaseline(page, PlaywrightVisualTest.class, "bolt-cutters",
+                page.getByTestId("unit-price"), page.locator(".card"));
+    }
+}
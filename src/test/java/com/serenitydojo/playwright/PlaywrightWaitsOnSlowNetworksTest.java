@@ -0,0 +1,76 @@
+package com.serenitydojo.playwright;
+
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.junit.UsePlaywright;
+import com.microsoft.playwright.options.LoadState;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Comparator;
+
+/**
+ * The same waits as in {@link PlaywrightWaitsTest}, but on slower networks, so we can see which ones
+ * wait for longer than they need to and which ones give up too early.
+ */
+@UsePlaywright(HeadlessChromeOptions.class)
+public class PlaywrightWaitsOnSlowNetworksTest {
+
+    private static final String TOOLSHOP_API = "https://api.practicesoftwaretesting.com/**";
+
+    NetworkConditions network;
+
+    @AfterEach
+    void reportWaitTimes() {
+        // "after the data arrived" is how much longer the wait kept going once the last response was in
+        if (network != null) {
+            network.report().forEach(System.out::println);
+        }
+    }
+
+    @DisplayName("Waiting for the product cards")
+    @ParameterizedTest
+    @EnumSource(NetworkConditions.Profile.class)
+    void waitForProductCards(NetworkConditions.Profile profile, Page page) {
+        network = NetworkConditions.apply(page, profile, TOOLSHOP_API);
+
+        page.navigate("https://practicesoftwaretesting.com");
+        network.timeWait("waitForSelector(.card)", () -> page.waitForSelector(".card"));
+
+        Assertions.assertThat(page.getByTestId("product-name").count()).isGreaterThan(0);
+    }
+
+    @DisplayName("Waiting for the sorted products API call")
+    @ParameterizedTest
+    @EnumSource(NetworkConditions.Profile.class)
+    void waitForSortedProducts(NetworkConditions.Profile profile, Page page) {
+        network = NetworkConditions.apply(page, profile, TOOLSHOP_API);
+
+        page.navigate("https://practicesoftwaretesting.com");
+        network.timeWait("waitForResponse(products?sort)", () -> page.waitForResponse("**/products?page=0&sort**",
+                () -> page.getByTestId("sort").selectOption("Price (High - Low)")));
+
+        var productPrices = page.getByTestId("product-price")
+                .allInnerTexts()
+                .stream()
+                .map(price -> Double.parseDouble(price.replace("$", "")))
+                .toList();
+        Assertions.assertThat(productPrices)
+                .isNotEmpty()
+                .isSortedAccordingTo(Comparator.reverseOrder());
+    }
+
+    @DisplayName("Waiting for the network to be idle")
+    @ParameterizedTest
+    @EnumSource(value = NetworkConditions.Profile.class, names = {"NO_THROTTLING", "FAST_3G", "SLOW_3G"})
+    void waitForNetworkIdle(NetworkConditions.Profile profile, Page page) {
+        network = NetworkConditions.apply(page, profile);
+
+        page.navigate("https://practicesoftwaretesting.com");
+        network.timeWait("waitForLoadState(NETWORKIDLE)", () -> page.waitForLoadState(LoadState.NETWORKIDLE));
+
+        Assertions.assertThat(page.getByTestId("product-name").count()).isGreaterThan(0);
+    }
+}
@@ -8,7 +8,10 @@ import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
 
 import java.util.Comparator;
 import java.util.List;
@@ -16,6 +19,7 @@ import java.util.List;
 import static com.microsoft.playwright.assertions.PlaywrightAssertions.assertThat;
 
 @UsePlaywright(HeadlessChromeOptions.class)
+@ExtendWith(PageEvents.DumpOnFailure.class)
 public class PlaywrightWaitsTest {
     @Nested
     class WaitingForState {
@@ -107,12 +111,27 @@ public class PlaywrightWaitsTest {
             Assertions.assertThat(filteredProducts).contains("Sheet Sander", "Belt Sander", "Cordless Drill 18V");
 
         }
+
+        @Test
+        @DisplayName("Should show the categories in the menu bar")
+        @Tag("aria-snapshots")
+        @EnabledIfSystemProperty(named = "aria.snapshots", matches = "true")
+        void shouldShowTheCategoriesMenu(Page page) {
+            page.getByRole(AriaRole.MENUBAR).getByText("Categories").click();
+
+            // The whole menu bar, with the categories drop-down open, checked in one go
+            AriaSnapshots.assertMatchesBaseline(page.getByRole(AriaRole.MENUBAR), PlaywrightWaitsTest.class, "categories-menu");
+        }
     }
 
     @Nested
     class WaitingForElementsToAppearAndDisappear {
+        // Keeps the page's console and network events so they get printed if the test fails
+        PageEvents pageEvents;
+
         @BeforeEach
         void openHomePage(Page page) {
+            pageEvents = PageEvents.recordFor(page);
             page.navigate("https://practicesoftwaretesting.com");
         }
 
@@ -128,7 +147,19 @@ public class PlaywrightWaitsTest {
 
             // Wait for the toaster message to disappear (don't really need to check this in real life)
             // just for practice/demo
-            page.waitForCondition(() -> page.getByRole(AriaRole.ALERT).isHidden());
+            // The wait gets a timeout learned from earlier runs, so if the toaster never goes away we find out quickly
+            AdaptiveTimeouts.waitUntil(timeout -> page.waitForCondition(() -> page.getByRole(AriaRole.ALERT).isHidden(),
+                    new Page.WaitForConditionOptions().setTimeout(timeout)));
+        }
+
+        @Test
+        @DisplayName("Adding an item to the cart should not raise any JavaScript errors")
+        void shouldNotRaiseErrorsWhenAddingToTheCart(Page page) {
+            page.getByText("Bolt Cutters").click();
+            page.getByText("Add to cart").click();
+            assertThat(page.getByRole(AriaRole.ALERT)).isVisible();
+
+            Assertions.assertThat(pageEvents.pageErrorCount()).isZero();
         }
 
         @Test
@@ -139,7 +170,8 @@ public class PlaywrightWaitsTest {
 
             // Wait for the item count to be updated
             // Technique #1 (Java)
-            page.waitForCondition(() -> page.getByTestId("cart-quantity").textContent().equals("1"));
+            AdaptiveTimeouts.waitUntil(timeout -> page.waitForCondition(() -> page.getByTestId("cart-quantity").textContent().equals("1"),
+                    new Page.WaitForConditionOptions().setTimeout(timeout)));
             // Technique #2 (Playwright selector format)
             //page.waitForSelector("[data-test=cart-quantity]:has-text('1')");
         }
@@ -0,0 +1,413 @@
+package com.serenitydojo.playwright;
+
+import com.microsoft.playwright.Playwright;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestWatcher;
+import org.junit.platform.commons.annotation.Testable;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.junit.platform.commons.support.HierarchyTraversalMode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URI;
+import java.lang.reflect.Method;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Skips tests that passed last time when nothing they depend on has changed since.
+ * <p>
+ * Every top-level test class gets a key: a hash of
+ * <ul>
+ *     <li>the bytecode of the class, its nested classes, and every class of ours they use, directly or not
+ *     (so a change to {@link HeadlessChromeOptions} or {@link PageEvents} reruns the tests that use them)</li>
+ *     <li>the test resources they mention by name, such as {@code data/sample-data.txt}, and the baselines
+ *     kept in a folder named after the class</li>
+ *     <li>the launch options: browser engine, Playwright version, and the system properties that choose
+ *     the browser and the site</li>
+ *     <li>a snapshot of the site under test: a hash of what {@code -Dresult.cache.site.urls} return (by
+ *     default the Toolshop home page, which changes with every front-end release)</li>
+ * </ul>
+ * When a test passes, its key is recorded. On the next run, a test whose key is unchanged is skipped with
+ * a reason starting with "Cached", which shows up as such in the Surefire reports and the test event
+ * stream. A class whose tests all passed in the same run (or were skipped as cached) is skipped as a whole,
+ * so its {@code @BeforeAll} fixtures do not run either. A run that leaves some of its tests out, because
+ * of a {@code -Dtest=Class#method} filter or a condition such as {@code @EnabledIfSystemProperty}, only
+ * records the tests that passed. If the site can't be reached, nothing is skipped.
+ * <p>
+ * The cache is off unless {@code -Dresult.cache=true}. It lives in {@code .result-cache/results.properties}
+ * ({@code -Dresult.cache.dir} to change it), outside {@code target} so that {@code mvn clean} keeps it.
+ * {@code -Dresult.cache.rerun=true} runs everything but still records the results.
+ * <p>
+ * Registered for every test class through {@code META-INF/services} and {@code junit-platform.properties}.
+ */
+public class ResultCache implements ExecutionCondition, TestWatcher, AfterAllCallback {
+
+    private static final boolean ENABLED = Boolean.getBoolean("result.cache");
+    private static final boolean RERUN = Boolean.getBoolean("result.cache.rerun");
+    private static final Path RESULTS = Paths.get(System.getProperty("result.cache.dir", ".result-cache"), "results.properties");
+    private static final List<String> SITE_URLS = Arrays.stream(System.getProperty("result.cache.site.urls",
+                    System.getProperty("toolshop.url", "https://practicesoftwaretesting.com")).split(","))
+            .map(String::trim)
+            .filter(url -> !url.isEmpty())
+            .toList();
+    private static final List<String> LAUNCH_PROPERTIES = List.of("browser", "toolshop.url", "toolshop.api.url", "os.name");
+
+    private static final String TEST_PACKAGE = ResultCache.class.getPackageName().replace('.', '/');
+    private static final Pattern CLASS_REFERENCE = Pattern.compile(Pattern.quote(TEST_PACKAGE) + "/[A-Za-z0-9_$]+");
+    private static final String CLASS_PASSED = "all";
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(ResultCache.class);
+
+    private static final Map<String, String> RESULTS_BY_TEST = loadResults();
+    // The key hashes the launch options, engine included, so it is computed once per engine and class
+    private static final Map<String, String> KEYS = new ConcurrentHashMap<>();
+    private static volatile Optional<String> siteSnapshot;
+
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        if (!ENABLED || RERUN || context.getTestClass().isEmpty()) {
+            return ConditionEvaluationResult.enabled("Result cache not in use");
+        }
+        Class<?> testClass = context.getTestClass().get();
+        boolean wholeClass = context.getTestMethod().isEmpty() && testClass.getEnclosingClass() == null;
+        if (context.getTestMethod().isEmpty() && !wholeClass) {
+            return ConditionEvaluationResult.enabled("Nested classes are cached test by test");
+        }
+        Optional<String> key = keyFor(testClass);
+        if (key.isEmpty()) {
+            return ConditionEvaluationResult.enabled("Site snapshot unavailable, not using cached results");
+        }
+        String recorded = RESULTS_BY_TEST.get(cacheEntry(context, wholeClass));
+        if (recorded != null && recorded.startsWith(key.get() + " ")) {
+            String passedAt = recorded.substring(recorded.indexOf(' ') + 1);
+            return ConditionEvaluationResult.disabled("Cached: passed at " + passedAt
+                    + " with the same classes, resources, launch options and site snapshot");
+        }
+        return ConditionEvaluationResult.enabled("No cached result for the current inputs");
+    }
+
+    @Override
+    public void testSuccessful(ExtensionContext context) {
+        if (ENABLED) {
+            keyFor(context.getRequiredTestClass()).ifPresent(key -> record(cacheEntry(context, false), key));
+            markCompleted(context);
+        }
+    }
+
+    @Override
+    public void testDisabled(ExtensionContext context, Optional<String> reason) {
+        if (ENABLED && reason.filter(text -> text.startsWith("Cached")).isPresent()) {
+            markCompleted(context);
+        }
+    }
+
+    @Override
+    public void testFailed(ExtensionContext context, Throwable cause) {
+        forgetPass(context);
+    }
+
+    @Override
+    public void testAborted(ExtensionContext context, Throwable cause) {
+        forgetPass(context);
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        Class<?> testClass = context.getRequiredTestClass();
+        if (!ENABLED || testClass.getEnclosingClass() != null) {
+            return;
+        }
+        boolean failed = context.getExecutionException().isPresent()
+                || context.getStore(NAMESPACE).getOrDefault("failed", Boolean.class, false);
+        if (failed) {
+            RESULTS_BY_TEST.remove(cacheEntry(context, true));
+        } else if (completedTests(context).containsAll(testsDeclaredIn(testClass))) {
+            keyFor(testClass).ifPresent(key -> record(cacheEntry(context, true), key));
+        }
+        saveResults();
+    }
+
+    /**
+     * Notes that a test passed or was skipped as cached, on the store of its top-level class.
+     */
+    private static void markCompleted(ExtensionContext context) {
+        completedTests(topLevelClassContext(context))
+                .add(testId(context.getRequiredTestClass(), context.getRequiredTestMethod()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<String> completedTests(ExtensionContext classContext) {
+        return classContext.getStore(NAMESPACE)
+                .getOrComputeIfAbsent("completed", key -> ConcurrentHashMap.<String>newKeySet(), Set.class);
+    }
+
+    /**
+     * Every test method of the class and of its nested classes, whether or not this run selected it.
+     */
+    private static Set<String> testsDeclaredIn(Class<?> testClass) {
+        Set<String> tests = new HashSet<>();
+        Deque<Class<?>> classes = new ArrayDeque<>(List.of(testClass));
+        while (!classes.isEmpty()) {
+            Class<?> current = classes.pop();
+            AnnotationSupport.findAnnotatedMethods(current, Testable.class, HierarchyTraversalMode.TOP_DOWN)
+                    .forEach(method -> tests.add(testId(current, method)));
+            Arrays.stream(current.getDeclaredClasses())
+                    .filter(nested -> AnnotationSupport.isAnnotated(nested, Nested.class))
+                    .forEach(classes::push);
+        }
+        return tests;
+    }
+
+    private static String testId(Class<?> testClass, Method method) {
+        return testClass.getName() + "#" + method.getName() + Arrays.toString(method.getParameterTypes());
+    }
+
+    /**
+     * Drops any earlier pass of this test, and marks its top-level class as having a failure so that the
+     * class is not cached as a whole.
+     */
+    private static void forgetPass(ExtensionContext context) {
+        if (!ENABLED) {
+            return;
+        }
+        RESULTS_BY_TEST.remove(cacheEntry(context, false));
+        topLevelClassContext(context).getStore(NAMESPACE).put("failed", true);
+    }
+
+    private static ExtensionContext topLevelClassContext(ExtensionContext context) {
+        ExtensionContext classContext = context;
+        while (classContext.getParent().flatMap(ExtensionContext::getTestClass).isPresent()) {
+            classContext = classContext.getParent().get();
+        }
+        return classContext;
+    }
+
+    private static String cacheEntry(ExtensionContext context, boolean wholeClass) {
+        String test = wholeClass ? context.getRequiredTestClass().getName() + "#" + CLASS_PASSED : context.getUniqueId();
+        return CrossBrowserMatrix.browserName() + " " + test;
+    }
+
+    private static void record(String entry, String key) {
+        RESULTS_BY_TEST.put(entry, key + " " + Instant.now().truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    private static Optional<String> keyFor(Class<?> testClass) {
+        Optional<String> site = siteSnapshot();
+        if (site.isEmpty()) {
+            return Optional.empty();
+        }
+        Class<?> topLevel = testClass;
+        while (topLevel.getEnclosingClass() != null) {
+            topLevel = topLevel.getEnclosingClass();
+        }
+        Class<?> keyedClass = topLevel;
+        return Optional.of(KEYS.computeIfAbsent(CrossBrowserMatrix.browserName() + " " + keyedClass.getName(),
+                key -> computeKey(keyedClass, site.get())));
+    }
+
+    private static String computeKey(Class<?> testClass, String siteSnapshot) {
+        MessageDigest digest = sha256();
+        ClassLoader classLoader = testClass.getClassLoader();
+        Map<String, byte[]> classes = classesUsedBy(testClass, classLoader);
+        classes.forEach((name, bytecode) -> {
+            digest.update(name.getBytes(StandardCharsets.UTF_8));
+            digest.update(bytecode);
+        });
+
+        String allBytecode = classes.values().stream()
+                .map(bytecode -> new String(bytecode, StandardCharsets.ISO_8859_1))
+                .collect(Collectors.joining());
+        String classFolder = "/" + testClass.getSimpleName() + "/";
+        for (String resource : testResources(testClass)) {
+            if (allBytecode.contains(resource) || ("/" + resource).contains(classFolder)) {
+                digest.update(resource.getBytes(StandardCharsets.UTF_8));
+                digest.update(readResource(classLoader, resource));
+            }
+        }
+
+        Map<String, String> launchOptions = new TreeMap<>();
+        launchOptions.put("engine", CrossBrowserMatrix.browserName());
+        launchOptions.put("playwright", playwrightVersion());
+        LAUNCH_PROPERTIES.forEach(property -> launchOptions.put(property, System.getProperty(property, "")));
+        digest.update(launchOptions.toString().getBytes(StandardCharsets.UTF_8));
+
+        digest.update(siteSnapshot.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Follows the references to our own classes in each class file's constant pool, starting from the test
+     * class. Nested classes are referenced from their outer class, so they are found the same way.
+     */
+    private static Map<String, byte[]> classesUsedBy(Class<?> testClass, ClassLoader classLoader) {
+        Map<String, byte[]> classes = new TreeMap<>();
+        Deque<String> toRead = new ArrayDeque<>(List.of(testClass.getName().replace('.', '/')));
+        while (!toRead.isEmpty()) {
+            String name = toRead.pop();
+            if (classes.containsKey(name)) {
+                continue;
+            }
+            byte[] bytecode = readResource(classLoader, name + ".class");
+            classes.put(name, bytecode);
+            Matcher references = CLASS_REFERENCE.matcher(new String(bytecode, StandardCharsets.ISO_8859_1));
+            while (references.find()) {
+                if (!classes.containsKey(references.group()) && classLoader.getResource(references.group() + ".class") != null) {
+                    toRead.push(references.group());
+                }
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * The non-class files in the same classpath folder as the test class, relative to that folder.
+     */
+    private static List<String> testResources(Class<?> testClass) {
+        URL classFile = testClass.getResource(testClass.getSimpleName() + ".class");
+        if (classFile == null || !"file".equals(classFile.getProtocol())) {
+            return List.of();
+        }
+        try {
+            Path root = Paths.get(classFile.toURI()).getParent();
+            for (int depth = 0; depth < TEST_PACKAGE.split("/").length; depth++) {
+                root = root.getParent();
+            }
+            Path classpathRoot = root;
+            try (Stream<Path> files = Files.walk(classpathRoot)) {
+                return files.filter(Files::isRegularFile)
+                        .filter(file -> !file.toString().endsWith(".class"))
+                        .map(file -> classpathRoot.relativize(file).toString().replace('\\', '/'))
+                        .sorted()
+                        .toList();
+            }
+        } catch (URISyntaxException | IOException e) {
+            throw new IllegalStateException("Could not list the test resources for " + testClass.getName(), e);
+        }
+    }
+
+    private static Optional<String> siteSnapshot() {
+        if (siteSnapshot == null) {
+            synchronized (ResultCache.class) {
+                if (siteSnapshot == null) {
+                    siteSnapshot = takeSiteSnapshot();
+                }
+            }
+        }
+        return siteSnapshot;
+    }
+
+    private static Optional<String> takeSiteSnapshot() {
+        MessageDigest digest = sha256();
+        HttpClient client = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        for (String url : SITE_URLS) {
+            try {
+                HttpResponse<byte[]> response = client.send(
+                        HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(20)).build(),
+                        HttpResponse.BodyHandlers.ofByteArray());
+                digest.update(url.getBytes(StandardCharsets.UTF_8));
+                digest.update(String.valueOf(response.statusCode()).getBytes(StandardCharsets.UTF_8));
+                digest.update(response.body());
+            } catch (IOException | IllegalArgumentException e) {
+                System.out.println("Result cache: could not take a snapshot of " + url + " (" + e + "), running every test");
+                return Optional.empty();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Optional.empty();
+            }
+        }
+        return Optional.of(HexFormat.of().formatHex(digest.digest()));
+    }
+
+    private static String playwrightVersion() {
+        URL jar = Playwright.class.getProtectionDomain().getCodeSource().getLocation();
+        String version = Playwright.class.getPackage().getImplementationVersion();
+        return (version != null) ? version : jar.getPath().substring(jar.getPath().lastIndexOf('/') + 1);
+    }
+
+    private static byte[] readResource(ClassLoader classLoader, String name) {
+        try (InputStream in = classLoader.getResourceAsStream(name)) {
+            if (in == null) {
+                throw new IllegalStateException("Could not find " + name + " on the test classpath");
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, String> loadResults() {
+        Map<String, String> results = new ConcurrentHashMap<>();
+        if (!ENABLED || !Files.exists(RESULTS)) {
+            return results;
+        }
+        Properties recorded = new Properties();
+        try (Reader reader = Files.newBufferedReader(RESULTS)) {
+            recorded.load(reader);
+        } catch (IOException e) {
+            System.out.println("Could not read " + RESULTS + ", running every test: " + e.getMessage());
+            return results;
+        }
+        recorded.stringPropertyNames().forEach(entry -> results.put(entry, recorded.getProperty(entry)));
+        return results;
+    }
+
+    private static synchronized void saveResults() {
+        Properties recorded = new Properties();
+        recorded.putAll(RESULTS_BY_TEST);
+        try {
+            Files.createDirectories(RESULTS.toAbsolutePath().getParent());
+            try (Writer writer = Files.newBufferedWriter(RESULTS)) {
+                recorded.store(writer, "Tests that passed, with the hash of their inputs and when they passed");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
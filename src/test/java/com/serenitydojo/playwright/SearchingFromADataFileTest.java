@@ -0,0 +1,53 @@
+package com.serenitydojo.playwright;
+
+import com.microsoft.playwright.*;
+import com.microsoft.playwright.options.AriaRole;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+
+import static com.microsoft.playwright.assertions.PlaywrightAssertions.assertThat;
+
+public class SearchingFromADataFileTest {
+    // Same searches as AddingItemsToTheCartTest, but the terms and expected counts come from a data file
+    // that is read one row at a time, so it can hold thousands of rows. One page is shared by all the rows,
+    // since each search starts from the search box anyway.
+
+    private static final String TOOLSHOP_URL = System.getProperty("toolshop.url", "https://practicesoftwaretesting.com");
+
+    protected static Playwright playwright;
+    protected static Browser browser;
+    protected static BrowserContext browserContext;
+
+    static Page page;
+
+    @BeforeAll
+    static void setUpBrowser() {
+        playwright = Playwright.create();
+        browser = CrossBrowserMatrix.browserType(playwright).launch(
+                new BrowserType.LaunchOptions().setHeadless(true)
+                        .setArgs(CrossBrowserMatrix.launchArgs())
+        );
+        playwright.selectors().setTestIdAttribute("data-test");
+        browserContext = browser.newContext();
+        page = browserContext.newPage();
+        page.navigate(TOOLSHOP_URL);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        browserContext.close();
+        browser.close();
+        playwright.close();
+    }
+
+    @DisplayName("Searching for a term should find the expected number of products")
+    @ParameterizedTest(name = "{0} -> {1} products")
+    @StreamingFileSource(resource = "data/search-terms.csv")
+    void searchForTerm(String term, int expectedCount) {
+        page.getByPlaceholder("Search").fill(term);
+        page.getByRole(AriaRole.BUTTON, new Page.GetByRoleOptions().setName("Search")).click();
+
+        assertThat(page.getByTestId("search-term")).containsText(term);
+        assertThat(page.locator(".card")).hasCount(expectedCount);
+    }
+}
@@ -0,0 +1,200 @@
+package com.serenitydojo.playwright;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.PlaywrightException;
+import com.microsoft.playwright.Response;
+import com.microsoft.playwright.options.LoadState;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Visits every page of a site that can be reached by following links from a start page, and records
+ * how each one loaded.
+ * <p>
+ * Links are only followed within the start page's origin. Every URL (without its fragment) is visited
+ * once: a concurrent set of seen URLs is checked before a URL is queued, so several workers can share one
+ * queue. The workers each drive their own browser context, and their number bounds how many pages load at
+ * the same time. Playwright objects must not be shared between threads, so each worker also has its own
+ * Playwright instance and browser.
+ * <pre>
+ *     List&lt;SiteCrawler.PageVisit&gt; visits = new SiteCrawler("https://practicesoftwaretesting.com")
+ *             .withConcurrency(4)
+ *             .withMaxPages(200)
+ *             .crawl();
+ * </pre>
+ */
+public class SiteCrawler {
+
+    private static final String COLLECT_LINKS = "links => links.map(link => link.href)";
+    private static final long IDLE_POLL_MILLIS = 200;
+
+    private final URI startUrl;
+    private int concurrency = 4;
+    private int maxPages = 500;
+    private double navigationTimeoutMillis = 30_000;
+
+    private final Set<String> seen = ConcurrentHashMap.newKeySet();
+    private final LinkedBlockingQueue<String> toVisit = new LinkedBlockingQueue<>();
+    private final ConcurrentLinkedQueue<PageVisit> visits = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pagesInProgress = new AtomicInteger();
+
+    public SiteCrawler(String startUrl) {
+        this.startUrl = URI.create(startUrl);
+    }
+
+    public SiteCrawler withConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    public SiteCrawler withMaxPages(int maxPages) {
+        this.maxPages = maxPages;
+        return this;
+    }
+
+    public SiteCrawler withNavigationTimeout(double navigationTimeoutMillis) {
+        this.navigationTimeoutMillis = navigationTimeoutMillis;
+        return this;
+    }
+
+    public List<PageVisit> crawl() throws InterruptedException {
+        enqueue(startUrl.toString());
+        List<Thread> workers = new ArrayList<>();
+        for (int worker = 0; worker < concurrency; worker++) {
+            Thread thread = new Thread(this::work, "crawler-" + worker);
+            workers.add(thread);
+            thread.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return new ArrayList<>(visits);
+    }
+
+    private void work() {
+        try (Playwright playwright = Playwright.create()) {
+            Browser browser = CrossBrowserMatrix.browserType(playwright).launch(
+                    new BrowserType.LaunchOptions().setHeadless(true).setArgs(CrossBrowserMatrix.launchArgs()));
+            BrowserContext context = browser.newContext();
+            context.setDefaultNavigationTimeout(navigationTimeoutMillis);
+            Page page = context.newPage();
+            List<String> consoleErrors = new ArrayList<>();
+            page.onConsoleMessage(message -> {
+                if ("error".equals(message.type())) {
+                    consoleErrors.add(message.text());
+                }
+            });
+            page.onPageError(consoleErrors::add);
+
+            while (true) {
+                String url = toVisit.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (url == null) {
+                    // Only stop once no other worker can still discover new links
+                    if (pagesInProgress.get() == 0 && toVisit.isEmpty()) {
+                        break;
+                    }
+                    continue;
+                }
+                try {
+                    consoleErrors.clear();
+                    visits.add(visit(page, url, consoleErrors));
+                } finally {
+                    pagesInProgress.decrementAndGet();
+                }
+            }
+            browser.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private PageVisit visit(Page page, String url, List<String> consoleErrors) {
+        long start = System.currentTimeMillis();
+        Response response;
+        try {
+            response = page.navigate(url);
+        } catch (PlaywrightException e) {
+            return new PageVisit(url, 0, System.currentTimeMillis() - start, List.copyOf(consoleErrors), e.getMessage(), null);
+        }
+        long loadMillis = System.currentTimeMillis() - start;
+        int status = (response == null) ? 0 : response.status();
+        // The page has loaded at this point; failing to settle or to collect its links is recorded separately
+        String settleError = null;
+        try {
+            // Links are rendered by the front end after the page has loaded, so give it a moment to settle
+            page.waitForLoadState(LoadState.NETWORKIDLE);
+            @SuppressWarnings("unchecked")
+            List<String> links = (List<String>) page.locator("a[href]").evaluateAll(COLLECT_LINKS);
+            links.forEach(this::enqueue);
+        } catch (PlaywrightException e) {
+            settleError = e.getMessage();
+        }
+        return new PageVisit(url, status, loadMillis, List.copyOf(consoleErrors), null, settleError);
+    }
+
+    private void enqueue(String link) {
+        URI uri;
+        try {
+            uri = URI.create(link);
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        if (!sameOrigin(uri)) {
+            return;
+        }
+        String url = withoutFragment(uri);
+        // The seen set is checked and updated in one step, so two workers can't both queue the same page
+        if (seen.size() < maxPages && seen.add(url)) {
+            pagesInProgress.incrementAndGet();
+            toVisit.add(url);
+        }
+    }
+
+    private boolean sameOrigin(URI uri) {
+        return startUrl.getScheme().equalsIgnoreCase(uri.getScheme())
+                && startUrl.getHost().equalsIgnoreCase(uri.getHost())
+                && startUrl.getPort() == uri.getPort();
+    }
+
+    private static String withoutFragment(URI uri) {
+        String url = uri.toString();
+        int fragment = url.indexOf('#');
+        return (fragment < 0) ? url : url.substring(0, fragment);
+    }
+
+    /**
+     * @param error       why the page could not be loaded at all
+     * @param settleError why the page, once loaded, did not settle or its links could not be collected
+     */
+    public record PageVisit(String url, int status, long loadMillis, List<String> consoleErrors,
+                            String error, String settleError) {
+
+        public boolean loaded() {
+            return error == null && status > 0 && status < 400;
+        }
+
+        public boolean settled() {
+            return loaded() && settleError == null;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%3d %6d ms %s%s%s%s", status, loadMillis, url,
+                    consoleErrors.isEmpty() ? "" : " (" + consoleErrors.size() + " console errors)",
+                    error == null ? "" : " - " + error,
+                    settleError == null ? "" : " - did not settle: " + settleError);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.serenitydojo.playwright;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.ArgumentsProvider;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+import org.junit.jupiter.params.support.AnnotationConsumer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Feeds a parameterized test with rows read one at a time from a CSV or JSON-lines file on the test
+ * classpath, so data files of any size run in constant memory.
+ * <pre>
+ *     &#64;ParameterizedTest
+ *     &#64;StreamingFileSource(resource = "data/search-terms.csv")
+ *     void search(String term, int expectedCount) { ... }
+ * </pre>
+ * CSV files start with a header row; JSON-lines files ({@code .jsonl}) hold one object per line, and
+ * {@link #columns} says which fields to pass, in order. Values are passed as strings, and JUnit converts
+ * them to the parameter types. Blank lines and lines starting with {@code #} are skipped.
+ * <p>
+ * To split a large file over several workers, give each one {@code -Dshard.count=N} and its own
+ * {@code -Dshard.index} (0 to N-1); each worker then only runs every Nth row.
+ */
+@Target({ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@ArgumentsSource(StreamingFileSource.Provider.class)
+public @interface StreamingFileSource {
+
+    String resource();
+
+    /**
+     * The fields to pass from each JSON line. CSV files pass every column, in file order.
+     */
+    String[] columns() default {};
+
+    char delimiter() default ',';
+
+    class Provider implements ArgumentsProvider, AnnotationConsumer<StreamingFileSource> {
+
+        private static final int SHARD_COUNT = Integer.getInteger("shard.count", 1);
+        private static final int SHARD_INDEX = Integer.getInteger("shard.index", 0);
+
+        private StreamingFileSource source;
+
+        @Override
+        public void accept(StreamingFileSource source) {
+            this.source = source;
+        }
+
+        @Override
+        public Stream<? extends Arguments> provideArguments(ExtensionContext context) {
+            InputStream data = context.getRequiredTestClass().getClassLoader().getResourceAsStream(source.resource());
+            if (data == null) {
+                throw new IllegalArgumentException("No data file " + source.resource() + " on the test classpath");
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(data, StandardCharsets.UTF_8));
+            boolean jsonLines = source.resource().endsWith(".jsonl");
+            AtomicLong rowNumber = new AtomicLong();
+
+            Stream<String> rows = reader.lines()
+                    .filter(line -> !line.isBlank() && !line.startsWith("#"));
+            if (!jsonLines) {
+                rows = rows.skip(1);
+            }
+            return rows
+                    .filter(row -> rowNumber.getAndIncrement() % SHARD_COUNT == SHARD_INDEX)
+                    .map(row -> jsonLines ? fromJson(row) : fromCsv(row))
+                    .onClose(() -> close(reader));
+        }
+
+        private Arguments fromJson(String line) {
+            JsonObject row = JsonParser.parseString(line).getAsJsonObject();
+            Object[] values = new Object[source.columns().length];
+            for (int column = 0; column < values.length; column++) {
+                JsonElement value = row.get(source.columns()[column]);
+                values[column] = (value == null || value.isJsonNull()) ? null
+                        : value.isJsonPrimitive() ? value.getAsString() : value.toString();
+            }
+            return Arguments.of(values);
+        }
+
+        /**
+         * Splits a CSV line, allowing quoted values with delimiters and doubled quotes in them.
+         */
+        private Arguments fromCsv(String line) {
+            List<String> values = new ArrayList<>();
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            for (int index = 0; index < line.length(); index++) {
+                char c = line.charAt(index);
+                if (c == '"') {
+                    if (quoted && index + 1 < line.length() && line.charAt(index + 1) == '"') {
+                        value.append('"');
+                        index++;
+                    } else {
+                        quoted = !quoted;
+                    }
+                } else if (c == source.delimiter() && !quoted) {
+                    values.add(value.toString().trim());
+                    value.setLength(0);
+                } else {
+                    value.append(c);
+                }
+            }
+            values.add(value.toString().trim());
+            return Arguments.of(values.toArray());
+        }
+
+        private static void close(BufferedReader reader) {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
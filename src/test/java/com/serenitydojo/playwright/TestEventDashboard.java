@@ -0,0 +1,105 @@
+package com.serenitydojo.playwright;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Follows the event file written by {@link TestEventStream} and prints a status line every few seconds:
+ * tests per minute, failures so far, and the slowest tests.
+ * <p>
+ * Run it next to a test run with:
+ * <pre>
+ *     mvn exec:java -Dexec.classpathScope=test \
+ *         -Dexec.mainClass=com.serenitydojo.playwright.TestEventDashboard [-Dexec.args=target/test-events.jsonl]
+ * </pre>
+ */
+public class TestEventDashboard {
+
+    private static final long REFRESH_MILLIS = 2_000;
+    private static final int SLOWEST_TESTS_SHOWN = 3;
+
+    private final Map<String, Long> startTimes = new HashMap<>();
+    private final List<Map.Entry<String, Long>> durations = new ArrayList<>();
+    private final List<String> failures = new ArrayList<>();
+    private long runStart;
+    private int finished;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path events = Paths.get(args.length > 0 ? args[0] : "target/test-events.jsonl");
+        while (!Files.exists(events)) {
+            Thread.sleep(REFRESH_MILLIS);
+        }
+        new TestEventDashboard().follow(events);
+    }
+
+    private void follow(Path events) throws IOException, InterruptedException {
+        try (BufferedReader reader = Files.newBufferedReader(events, StandardCharsets.UTF_8)) {
+            long nextRefresh = 0;
+            while (true) {
+                String line = reader.readLine();
+                if (line == null) {
+                    Thread.sleep(200);
+                } else if (!line.isBlank() && accept(JsonParser.parseString(line).getAsJsonObject())) {
+                    print();
+                    return;
+                }
+                if (System.currentTimeMillis() >= nextRefresh) {
+                    print();
+                    nextRefresh = System.currentTimeMillis() + REFRESH_MILLIS;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true once the run is over
+     */
+    private boolean accept(JsonObject event) {
+        long timestamp = event.get("timestamp").getAsLong();
+        switch (event.get("type").getAsString()) {
+            case "run-started" -> runStart = (runStart == 0) ? timestamp : runStart;
+            case "test-started" -> startTimes.put(event.get("test").getAsString(), timestamp);
+            case "test-finished" -> {
+                finished++;
+                Long started = startTimes.remove(event.get("test").getAsString());
+                if (started != null) {
+                    durations.add(Map.entry(event.get("name").getAsString(), timestamp - started));
+                }
+                if ("FAILED".equals(event.get("status").getAsString())) {
+                    failures.add(event.get("name").getAsString());
+                    System.out.println("FAILED: " + event.get("name").getAsString() + " - " + event.get("failure").getAsString());
+                }
+            }
+            case "run-finished" -> {
+                return startTimes.isEmpty();
+            }
+            default -> {
+            }
+        }
+        return false;
+    }
+
+    private void print() {
+        double minutes = Math.max(System.currentTimeMillis() - runStart, 1) / 60_000.0;
+        String slowest = durations.stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(SLOWEST_TESTS_SHOWN)
+                .map(entry -> entry.getKey() + " (" + entry.getValue() + " ms)")
+                .reduce((first, second) -> first + ", " + second)
+                .orElse("-");
+        System.out.printf("%d finished, %d running, %d failed, %.1f tests/min | slowest: %s%n",
+                finished, startTimes.size(), failures.size(), runStart == 0 ? 0 : finished / minutes, slowest);
+    }
+}
@@ -0,0 +1,205 @@
+package com.serenitydojo.playwright;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.reporting.ReportEntry;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Streams test events as JSON lines while the run is in progress, for live dashboards.
+ * <p>
+ * Registered with the JUnit Platform through {@code META-INF/services}, so it runs with every test run.
+ * Besides test start and finish, it forwards JUnit report entries (such as the ones published by
+ * {@link BrowserResourceSampler}) and any event emitted by the fixtures through {@link #emit}: navigations
+ * of pages recorded with {@link PageEvents}, wait durations from {@link NetworkConditions}, retries of
+ * {@link BatchedAssertions} polls, and artifacts (baselines recorded and visual diffs written).
+ * <p>
+ * Test threads only put events on a lock-free queue; a single background thread turns them into JSON
+ * and writes them out, so a slow disk or consumer never holds up a test.
+ * <p>
+ * {@code -Dtest.events} chooses where the events go: a file path (by default
+ * {@code target/test-events.jsonl}), {@code socket:host:port}, or {@code off}.
+ */
+public class TestEventStream implements TestExecutionListener {
+
+    private static final String DESTINATION = System.getProperty("test.events", "target/test-events.jsonl");
+    private static final long IDLE_PARK_NANOS = 50_000_000;
+
+    private static final ConcurrentLinkedQueue<Event> QUEUE = new ConcurrentLinkedQueue<>();
+    private static final ThreadLocal<String> CURRENT_TEST = new ThreadLocal<>();
+    // The cross-browser matrix runs several test plans at once; they share one stream
+    private static final AtomicInteger ACTIVE_TEST_PLANS = new AtomicInteger();
+    private static volatile boolean enabled;
+    private static volatile boolean running;
+    private static Thread writerThread;
+
+    /**
+     * Records an event against the test running on this thread. Does nothing when streaming is off.
+     */
+    public static void emit(String type, Map<String, ?> fields) {
+        if (enabled) {
+            QUEUE.add(new Event(type, System.currentTimeMillis(), CURRENT_TEST.get(), new LinkedHashMap<>(fields)));
+        }
+    }
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        if ("off".equals(DESTINATION)) {
+            return;
+        }
+        synchronized (TestEventStream.class) {
+            if (ACTIVE_TEST_PLANS.getAndIncrement() == 0) {
+                enabled = true;
+                running = true;
+                writerThread = new Thread(TestEventStream::writeEvents, "test-event-writer");
+                writerThread.setDaemon(true);
+                writerThread.start();
+            }
+        }
+        emit("run-started", Map.of());
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        if (!enabled) {
+            return;
+        }
+        emit("run-finished", Map.of());
+        synchronized (TestEventStream.class) {
+            if (ACTIVE_TEST_PLANS.decrementAndGet() > 0) {
+                return;
+            }
+            enabled = false;
+            running = false;
+            LockSupport.unpark(writerThread);
+            try {
+                writerThread.join(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier) {
+        if (enabled && testIdentifier.isTest()) {
+            CURRENT_TEST.set(testIdentifier.getUniqueId());
+            emit("test-started", Map.of("name", testIdentifier.getDisplayName()));
+        }
+    }
+
+    @Override
+    public void executionSkipped(TestIdentifier testIdentifier, String reason) {
+        if (enabled && testIdentifier.isTest()) {
+            QUEUE.add(new Event("test-skipped", System.currentTimeMillis(), testIdentifier.getUniqueId(),
+                    Map.of("name", testIdentifier.getDisplayName(), "reason", String.valueOf(reason))));
+        }
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult result) {
+        if (enabled && testIdentifier.isTest()) {
+            Map<String, Object> fields = new LinkedHashMap<>();
+            fields.put("name", testIdentifier.getDisplayName());
+            fields.put("status", result.getStatus().name());
+            result.getThrowable().ifPresent(failure -> fields.put("failure", String.valueOf(failure)));
+            emit("test-finished", fields);
+            CURRENT_TEST.remove();
+        }
+    }
+
+    @Override
+    public void reportingEntryPublished(TestIdentifier testIdentifier, ReportEntry entry) {
+        if (enabled) {
+            QUEUE.add(new Event("report-entry", System.currentTimeMillis(), testIdentifier.getUniqueId(), entry.getKeyValuePairs()));
+        }
+    }
+
+    private static void writeEvents() {
+        try (Writer out = open()) {
+            while (running || !QUEUE.isEmpty()) {
+                Event event = QUEUE.poll();
+                if (event == null) {
+                    out.flush();
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+                out.write(event.toJson());
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            System.err.println("Test event streaming stopped: " + e);
+            enabled = false;
+            QUEUE.clear();
+        }
+    }
+
+    private static Writer open() throws IOException {
+        if (DESTINATION.startsWith("socket:")) {
+            String[] hostAndPort = DESTINATION.substring("socket:".length()).split(":");
+            Socket socket = new Socket(hostAndPort[0], Integer.parseInt(hostAndPort[1]));
+            return new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+        Path file = Paths.get(DESTINATION);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        return Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private record Event(String type, long timestamp, String testId, Map<String, ?> fields) {
+
+        String toJson() {
+            StringBuilder json = new StringBuilder(128)
+                    .append("{\"type\":").append(quote(type))
+                    .append(",\"timestamp\":").append(timestamp);
+            if (testId != null) {
+                json.append(",\"test\":").append(quote(testId));
+            }
+            fields.forEach((key, value) -> {
+                json.append(',').append(quote(key)).append(':');
+                json.append(value instanceof Number || value instanceof Boolean ? value.toString() : quote(String.valueOf(value)));
+            });
+            return json.append('}').toString();
+        }
+
+        private static String quote(String text) {
+            StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+            for (char c : text.toCharArray()) {
+                switch (c) {
+                    case '"' -> quoted.append("\\\"");
+                    case '\\' -> quoted.append("\\\\");
+                    case '\n' -> quoted.append("\\n");
+                    case '\r' -> quoted.append("\\r");
+                    case '\t' -> quoted.append("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            quoted.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            quoted.append(c);
+                        }
+                    }
+                }
+            }
+            return quoted.append('"').toString();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.serenitydojo.playwright;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.microsoft.playwright.APIRequestContext;
+import com.microsoft.playwright.APIResponse;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.options.RequestOptions;
+
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * Puts the Toolshop into a known state through its REST API instead of clicking through the UI.
+ * <p>
+ * Requests go through the browser context's own {@link APIRequestContext}, so any cookies the API sets
+ * are shared with the pages of that context. State the front end keeps in browser storage (the cart id
+ * and the auth token) is copied into the context with an init script, so it is in place on the next
+ * navigation. The script only writes to the Toolshop's own top-level pages, and only once per page
+ * session, so changes the test makes through the UI afterwards (emptying the cart, logging out) stick.
+ * <p>
+ * The API defaults to the public Toolshop; point {@code toolshop.api.url} and {@code toolshop.url} at a
+ * local stand-in to seed against that instead.
+ */
+public class ToolshopSeeder {
+
+    public static final String DEFAULT_API_URL = "https://api.practicesoftwaretesting.com";
+    public static final String DEFAULT_SITE_URL = "https://practicesoftwaretesting.com";
+
+    private final BrowserContext browserContext;
+    private final APIRequestContext request;
+    private final String apiUrl;
+    private final String siteHost;
+
+    public ToolshopSeeder(BrowserContext browserContext) {
+        this(browserContext, System.getProperty("toolshop.api.url", DEFAULT_API_URL));
+    }
+
+    public ToolshopSeeder(BrowserContext browserContext, String apiUrl) {
+        this.browserContext = browserContext;
+        this.request = browserContext.request();
+        this.apiUrl = apiUrl.endsWith("/") ? apiUrl.substring(0, apiUrl.length() - 1) : apiUrl;
+        this.siteHost = URI.create(System.getProperty("toolshop.url", DEFAULT_SITE_URL)).getAuthority();
+    }
+
+    public static ToolshopSeeder forPage(Page page) {
+        return new ToolshopSeeder(page.context());
+    }
+
+    //
+    // Products
+    //
+
+    public String findProductId(String productName) {
+        JsonObject results = asObject(request.get(apiUrl + "/products/search",
+                RequestOptions.create().setQueryParam("q", productName)));
+        JsonArray products = results.getAsJsonArray("data");
+        for (var product : products) {
+            if (product.getAsJsonObject().get("name").getAsString().trim().equalsIgnoreCase(productName.trim())) {
+                return product.getAsJsonObject().get("id").getAsString();
+            }
+        }
+        throw new IllegalStateException("No product called '" + productName + "' found in " + apiUrl);
+    }
+
+    //
+    // Carts
+    //
+
+    public String createCart() {
+        return asObject(request.post(apiUrl + "/carts")).get("id").getAsString();
+    }
+
+    public void addToCart(String cartId, String productId, int quantity) {
+        check(request.post(apiUrl + "/carts/" + cartId,
+                RequestOptions.create().setData(Map.of("product_id", productId, "quantity", quantity))));
+    }
+
+    /**
+     * Creates a cart holding one of each named product and makes it the current cart of this browser
+     * context, as if the user had added the products through the UI.
+     */
+    public String seedCartWith(String... productNames) {
+        String cartId = createCart();
+        for (String productName : productNames) {
+            addToCart(cartId, findProductId(productName), 1);
+        }
+        useCart(cartId, productNames.length);
+        return cartId;
+    }
+
+    public void useCart(String cartId, int quantity) {
+        seedStorageOnce("sessionStorage", "seeded_cart_id", cartId,
+                Map.of("cart_id", cartId, "cart_quantity", String.valueOf(quantity)));
+    }
+
+    //
+    // Users
+    //
+
+    public SeededUser registerUser(String firstName, String lastName, String email, String password) {
+        JsonObject user = asObject(request.post(apiUrl + "/users/register",
+                RequestOptions.create().setData(Map.of(
+                        "first_name", firstName,
+                        "last_name", lastName,
+                        "email", email,
+                        "password", password,
+                        "dob", "1990-01-01",
+                        "phone", "0987654321",
+                        "address", Map.of(
+                                "street", "Street 1",
+                                "city", "City",
+                                "state", "State",
+                                "country", "Country",
+                                "postal_code", "1234AA")))));
+        return new SeededUser(user.get("id").getAsString(), email, password);
+    }
+
+    /**
+     * Logs the user in through the API and makes the resulting token visible to the front end,
+     * so pages opened afterwards in this context start out logged in.
+     */
+    public String login(SeededUser user) {
+        String token = asObject(request.post(apiUrl + "/users/login",
+                RequestOptions.create().setData(Map.of("email", user.email(), "password", user.password()))))
+                .get("access_token").getAsString();
+        seedStorageOnce("localStorage", "seeded_auth_token", token, Map.of("auth-token", token));
+        return token;
+    }
+
+    //
+    // Orders
+    //
+
+    public String createOrder(String authToken, String cartId) {
+        JsonObject invoice = asObject(request.post(apiUrl + "/invoices",
+                RequestOptions.create()
+                        .setHeader("Authorization", "Bearer " + authToken)
+                        .setData(Map.of(
+                                "billing_street", "Street 1",
+                                "billing_city", "City",
+                                "billing_state", "State",
+                                "billing_country", "Country",
+                                "billing_postal_code", "1234AA",
+                                "payment_method", "cash-on-delivery",
+                                "payment_details", Map.of(),
+                                "cart_id", cartId))));
+        return invoice.get("id").getAsString();
+    }
+
+    public record SeededUser(String id, String email, String password) {
+    }
+
+    /**
+     * Init scripts run before every document in the context, on every navigation and in every frame, so the
+     * values are only written on the Toolshop's top-level pages, and only if this seed has not been written
+     * to that storage already.
+     */
+    private void seedStorageOnce(String storage, String marker, String seed, Map<String, String> values) {
+        StringBuilder script = new StringBuilder()
+                .append("if (window.top === window && window.location.host === ").append(quoted(siteHost))
+                .append(" && window.").append(storage).append(".getItem(").append(quoted(marker)).append(") !== ")
+                .append(quoted(seed)).append(") {");
+        values.forEach((key, value) -> script.append("window.").append(storage)
+                .append(".setItem(").append(quoted(key)).append(", ").append(quoted(value)).append(");"));
+        script.append("window.").append(storage).append(".setItem(").append(quoted(marker)).append(", ")
+                .append(quoted(seed)).append(");}");
+        browserContext.addInitScript(script.toString());
+    }
+
+    private static String quoted(String value) {
+        return new JsonPrimitive(value).toString();
+    }
+
+    private static APIResponse check(APIResponse response) {
+        if (!response.ok()) {
+            throw new IllegalStateException(String.format("Seeding call to %s failed with %d %s: %s",
+                    response.url(), response.status(), response.statusText(), response.text()));
+        }
+        return response;
+    }
+
+    private static JsonObject asObject(APIResponse response) {
+        return JsonParser.parseString(check(response).text()).getAsJsonObject();
+    }
+}
@@ -0,0 +1,147 @@
+package com.serenitydojo.playwright;
+
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Response;
+import com.microsoft.playwright.options.Timing;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Large, deterministic upload files for attachment tests.
+ * <p>
+ * Files are generated on first use by writing through memory-mapped windows, so the heap never holds
+ * more than the page cache hands us. The same size and seed always produce the same bytes, so each file
+ * is cached under a name derived from its content parameters and reused by every later test (and run).
+ * <p>
+ * Typical use:
+ * <pre>
+ *     Path attachment = UploadPayloads.ofMegabytes(100);
+ *     var upload = UploadPayloads.upload(page, "#attachment", attachment, uploadUrl, () -> sendButton.click());
+ * </pre>
+ */
+public final class UploadPayloads {
+
+    // Bump this if the generator changes, so stale cached files are not reused.
+    private static final int GENERATOR_VERSION = 1;
+    private static final long DEFAULT_SEED = 0x5EED_CAFEL;
+    private static final long WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private static final Path CACHE_DIRECTORY = Paths.get(
+            System.getProperty("upload.payloads.dir", "target/upload-payloads"));
+
+    private UploadPayloads() {
+    }
+
+    public static Path ofMegabytes(int megabytes) {
+        return of(megabytes * 1024L * 1024L);
+    }
+
+    public static Path of(long sizeInBytes) {
+        return of(sizeInBytes, DEFAULT_SEED);
+    }
+
+    /**
+     * Returns a file of exactly {@code sizeInBytes} bytes of pseudo-random content, generating it if
+     * it is not already in the cache.
+     */
+    public static synchronized Path of(long sizeInBytes, long seed) {
+        if (sizeInBytes < 0) {
+            throw new IllegalArgumentException("Payload size must not be negative: " + sizeInBytes);
+        }
+        Path payload = CACHE_DIRECTORY.resolve(String.format("payload-v%d-%016x-%d.bin", GENERATOR_VERSION, seed, sizeInBytes));
+        try {
+            if (Files.exists(payload) && Files.size(payload) == sizeInBytes) {
+                return payload;
+            }
+            Files.createDirectories(CACHE_DIRECTORY);
+            Path partial = Files.createTempFile(CACHE_DIRECTORY, "payload-", ".part");
+            generate(partial, sizeInBytes, seed);
+            Files.move(partial, payload, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return payload;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create upload payload " + payload, e);
+        }
+    }
+
+    /**
+     * Sets the file on the given input, runs {@code submit} to send it, and times the request that carries
+     * it, from the moment the browser starts sending it to the first byte of the response.
+     * <p>
+     * Setting the file on its own transfers nothing: with a local browser, Playwright only hands the browser
+     * the file's path. The bytes leave the browser when the form (or script) posts them, so that is what is
+     * measured.
+     *
+     * @param uploadUrl a glob matching the URL of the request that carries the file; when the site under test
+     *                  won't take the file, post it to an {@link UploadSink} rather than fulfilling a route, which
+     *                  would hand the body over inside Playwright without it crossing a socket
+     */
+    public static UploadMeasurement upload(Page page, String selector, Path file, String uploadUrl, Runnable submit) {
+        try {
+            long size = Files.size(file);
+            page.setInputFiles(selector, file);
+            long start = System.nanoTime();
+            Response response = page.waitForResponse(uploadUrl, submit);
+            long elapsed = System.nanoTime() - start;
+            Timing timing = response.request().timing();
+            if (timing.requestStart >= 0 && timing.responseStart > timing.requestStart) {
+                // Prefer the browser's own timing, which leaves out the time spent before the request was sent
+                elapsed = (long) ((timing.responseStart - timing.requestStart) * 1_000_000);
+            }
+            return new UploadMeasurement(file, size, response.status(), elapsed);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read upload payload " + file, e);
+        }
+    }
+
+    private static void generate(Path target, long sizeInBytes, long seed) throws IOException {
+        long state = seed == 0 ? DEFAULT_SEED : seed;
+        try (FileChannel channel = FileChannel.open(target,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (long position = 0; position < sizeInBytes; position += WINDOW_SIZE) {
+                long length = Math.min(WINDOW_SIZE, sizeInBytes - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_WRITE, position, length);
+                while (window.remaining() >= Long.BYTES) {
+                    state = next(state);
+                    window.putLong(state);
+                }
+                while (window.hasRemaining()) {
+                    state = next(state);
+                    window.put((byte) state);
+                }
+                window.force();
+            }
+        }
+    }
+
+    // xorshift64: cheap, deterministic and good enough to defeat transport compression
+    private static long next(long state) {
+        state ^= state << 13;
+        state ^= state >>> 7;
+        state ^= state << 17;
+        return state;
+    }
+
+    public record UploadMeasurement(Path file, long sizeInBytes, int status, long elapsedNanos) {
+
+        public double megabytesPerSecond() {
+            if (elapsedNanos == 0) {
+                return Double.POSITIVE_INFINITY;
+            }
+            return (sizeInBytes / (1024.0 * 1024.0)) / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Uploaded %s (%,d bytes) in %d ms - %.1f MB/s, status %d",
+                    file.getFileName(), sizeInBytes, elapsedNanos / 1_000_000, megabytesPerSecond(), status);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.serenitydojo.playwright;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A local HTTP endpoint that uploads can be posted to when the site under test won't accept them.
+ * <p>
+ * It reads and discards the whole request body, counting the bytes, and only then answers 204, so the time
+ * the browser takes to get a response is the time it took to push the body through a real socket.
+ * It allows cross-origin (and public-to-private network) requests, so a page on the live site can post to it:
+ * <pre>
+ *     try (UploadSink sink = UploadSink.start()) {
+ *         page.evaluate("url => fetch(url, { method: 'POST', body: ... })", sink.url());
+ *         long received = sink.receivedBytes();
+ *     }
+ * </pre>
+ */
+public final class UploadSink implements AutoCloseable {
+
+    private static final String PATH = "/upload-sink";
+
+    private final HttpServer server;
+    private final AtomicLong receivedBytes = new AtomicLong(-1);
+
+    private UploadSink(HttpServer server) {
+        this.server = server;
+    }
+
+    public static UploadSink start() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            UploadSink sink = new UploadSink(server);
+            server.createContext(PATH, sink::handle);
+            server.start();
+            return sink;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start the upload sink", e);
+        }
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + PATH;
+    }
+
+    /**
+     * The size of the body of the last upload, multipart framing included, or -1 if nothing was posted yet.
+     */
+    public long receivedBytes() {
+        return receivedBytes.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            exchange.getResponseHeaders().add("Access-Control-Allow-Origin", "*");
+            exchange.getResponseHeaders().add("Access-Control-Allow-Methods", "POST, OPTIONS");
+            exchange.getResponseHeaders().add("Access-Control-Allow-Headers", "*");
+            exchange.getResponseHeaders().add("Access-Control-Allow-Private-Network", "true");
+            if (!"OPTIONS".equals(exchange.getRequestMethod())) {
+                try (InputStream body = exchange.getRequestBody()) {
+                    receivedBytes.set(body.transferTo(OutputStream.nullOutputStream()));
+                }
+            }
+            exchange.sendResponseHeaders(204, -1);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
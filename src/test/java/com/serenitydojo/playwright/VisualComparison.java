@@ -0,0 +1,240 @@
+package com.serenitydojo.playwright;
+
+import java.awt.image.BufferedImage;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+/**
+ * Compares two screenshots tile by tile.
+ * <p>
+ * The image is cut into square tiles and each tile gets a 64-bit hash of its pixels. Tiles whose hashes
+ * match the baseline's are taken as identical without looking at a single pixel, so on a typical run,
+ * where little or nothing has changed, the cost is one pass over the new screenshot. The baseline hashes
+ * are stored next to the baseline image ({@link TileHashes#writeTo}), so the baseline image itself only needs to
+ * be decoded when some tiles do differ.
+ * <p>
+ * Tiles that differ are compared pixel by pixel, in parallel on the fork/join pool. Two pixels count as
+ * different when their colour distance in the YIQ colour space (the measure used by pixelmatch, which
+ * follows what the eye notices) is above the threshold, so anti-aliasing and rendering noise are ignored.
+ * A tile only counts as changed when more than a given fraction of its pixels differ.
+ */
+public final class VisualComparison {
+
+    public static final int DEFAULT_TILE_SIZE = 64;
+    public static final double DEFAULT_PIXEL_THRESHOLD = 0.1;
+    public static final double DEFAULT_TILE_TOLERANCE = 0.001;
+
+    private static final double MAX_YIQ_DELTA = 35215;
+    private static final int TILES_PER_TASK = 8;
+
+    private final int tileSize;
+    private final double pixelThreshold;
+    private final double tileTolerance;
+
+    public VisualComparison() {
+        this(DEFAULT_TILE_SIZE, DEFAULT_PIXEL_THRESHOLD, DEFAULT_TILE_TOLERANCE);
+    }
+
+    /**
+     * @param pixelThreshold how different two pixels may look before they count as different, from 0 (exact) to 1
+     * @param tileTolerance  the fraction of a tile's pixels that may differ before the tile counts as changed
+     */
+    public VisualComparison(int tileSize, double pixelThreshold, double tileTolerance) {
+        this.tileSize = tileSize;
+        this.pixelThreshold = pixelThreshold;
+        this.tileTolerance = tileTolerance;
+    }
+
+    public TileHashes hash(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+        List<Tile> tiles = tilesFor(width, height);
+        long[] hashes = new long[tiles.size()];
+        IntStream.range(0, tiles.size()).parallel()
+                .forEach(index -> hashes[index] = hashTile(pixels, width, tiles.get(index)));
+        return new TileHashes(width, height, tileSize, hashes);
+    }
+
+    /**
+     * Compares a screenshot with a baseline, decoding the baseline image only if some tile hashes differ.
+     */
+    public Result compare(TileHashes baselineHashes, ImageSource baseline, BufferedImage actual) throws IOException {
+        TileHashes actualHashes = hash(actual);
+        List<Tile> tiles = tilesFor(actual.getWidth(), actual.getHeight());
+        if (!actualHashes.sameLayoutAs(baselineHashes)) {
+            return new Result(tiles.size(), tiles.size(), tiles,
+                    String.format("size changed from %dx%d to %dx%d", baselineHashes.width(), baselineHashes.height(),
+                            actual.getWidth(), actual.getHeight()));
+        }
+
+        List<Tile> suspectTiles = new ArrayList<>();
+        for (int index = 0; index < tiles.size(); index++) {
+            if (actualHashes.hashes()[index] != baselineHashes.hashes()[index]) {
+                suspectTiles.add(tiles.get(index));
+            }
+        }
+        if (suspectTiles.isEmpty()) {
+            return new Result(tiles.size(), 0, List.of(), "identical");
+        }
+
+        BufferedImage baselineImage = baseline.load();
+        int width = actual.getWidth();
+        int[] expectedPixels = baselineImage.getRGB(0, 0, width, actual.getHeight(), null, 0, width);
+        int[] actualPixels = actual.getRGB(0, 0, width, actual.getHeight(), null, 0, width);
+        List<Tile> changedTiles = ForkJoinPool.commonPool()
+                .invoke(new TileDiff(suspectTiles, 0, suspectTiles.size(), expectedPixels, actualPixels, width));
+        return new Result(tiles.size(), suspectTiles.size(), changedTiles,
+                String.format("%d of %d tiles changed (%d more differed only below the threshold)",
+                        changedTiles.size(), tiles.size(), suspectTiles.size() - changedTiles.size()));
+    }
+
+    private List<Tile> tilesFor(int width, int height) {
+        List<Tile> tiles = new ArrayList<>();
+        for (int y = 0; y < height; y += tileSize) {
+            for (int x = 0; x < width; x += tileSize) {
+                tiles.add(new Tile(x, y, Math.min(tileSize, width - x), Math.min(tileSize, height - y)));
+            }
+        }
+        return tiles;
+    }
+
+    private static long hashTile(int[] pixels, int width, Tile tile) {
+        long hash = 0xCBF29CE484222325L;
+        for (int y = tile.y(); y < tile.y() + tile.height(); y++) {
+            int row = y * width;
+            for (int x = tile.x(); x < tile.x() + tile.width(); x++) {
+                hash = (hash ^ pixels[row + x]) * 0x100000001B3L;
+            }
+        }
+        return hash;
+    }
+
+    private boolean tileChanged(Tile tile, int[] expected, int[] actual, int width) {
+        double maxDelta = MAX_YIQ_DELTA * pixelThreshold * pixelThreshold;
+        long allowedDifferences = (long) (tile.width() * tile.height() * tileTolerance);
+        long differences = 0;
+        for (int y = tile.y(); y < tile.y() + tile.height(); y++) {
+            int row = y * width;
+            for (int x = tile.x(); x < tile.x() + tile.width(); x++) {
+                int expectedPixel = expected[row + x];
+                int actualPixel = actual[row + x];
+                if (expectedPixel != actualPixel && colourDelta(expectedPixel, actualPixel) > maxDelta) {
+                    if (++differences > allowedDifferences) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    static double colourDelta(int first, int second) {
+        int r1 = (first >> 16) & 0xFF, g1 = (first >> 8) & 0xFF, b1 = first & 0xFF;
+        int r2 = (second >> 16) & 0xFF, g2 = (second >> 8) & 0xFF, b2 = second & 0xFF;
+        double y = luminance(r1, g1, b1) - luminance(r2, g2, b2);
+        double i = (r1 - r2) * 0.59597799 - (g1 - g2) * 0.27417610 - (b1 - b2) * 0.32180189;
+        double q = (r1 - r2) * 0.21147017 - (g1 - g2) * 0.52261711 + (b1 - b2) * 0.31114694;
+        return 0.5053 * y * y + 0.299 * i * i + 0.1957 * q * q;
+    }
+
+    private static double luminance(int r, int g, int b) {
+        return r * 0.29889531 + g * 0.58662247 + b * 0.11448223;
+    }
+
+    private class TileDiff extends RecursiveTask<List<Tile>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Tile> tiles;
+        private final int from;
+        private final int to;
+        private final int[] expected;
+        private final int[] actual;
+        private final int width;
+
+        TileDiff(List<Tile> tiles, int from, int to, int[] expected, int[] actual, int width) {
+            this.tiles = tiles;
+            this.from = from;
+            this.to = to;
+            this.expected = expected;
+            this.actual = actual;
+            this.width = width;
+        }
+
+        @Override
+        protected List<Tile> compute() {
+            if (to - from <= TILES_PER_TASK) {
+                List<Tile> changed = new ArrayList<>();
+                for (int index = from; index < to; index++) {
+                    if (tileChanged(tiles.get(index), expected, actual, width)) {
+                        changed.add(tiles.get(index));
+                    }
+                }
+                return changed;
+            }
+            int middle = (from + to) >>> 1;
+            TileDiff left = new TileDiff(tiles, from, middle, expected, actual, width);
+            left.fork();
+            List<Tile> changed = new ArrayList<>(new TileDiff(tiles, middle, to, expected, actual, width).compute());
+            changed.addAll(0, left.join());
+            return changed;
+        }
+    }
+
+    public record Tile(int x, int y, int width, int height) {
+    }
+
+    /**
+     * @param suspectTiles tiles whose hashes differed from the baseline
+     * @param changedTiles tiles that still differed once the perceptual threshold was applied
+     */
+    public record Result(int totalTiles, int suspectTiles, List<Tile> changedTiles, String summary) {
+        public boolean matches() {
+            return changedTiles.isEmpty();
+        }
+    }
+
+    public record TileHashes(int width, int height, int tileSize, long[] hashes) {
+
+        boolean sameLayoutAs(TileHashes other) {
+            return width == other.width && height == other.height && tileSize == other.tileSize;
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            DataOutputStream data = new DataOutputStream(out);
+            data.writeInt(width);
+            data.writeInt(height);
+            data.writeInt(tileSize);
+            data.writeInt(hashes.length);
+            for (long hash : hashes) {
+                data.writeLong(hash);
+            }
+            data.flush();
+        }
+
+        public static TileHashes readFrom(InputStream in) throws IOException {
+            DataInputStream data = new DataInputStream(in);
+            int width = data.readInt();
+            int height = data.readInt();
+            int tileSize = data.readInt();
+            long[] hashes = new long[data.readInt()];
+            for (int index = 0; index < hashes.length; index++) {
+                hashes[index] = data.readLong();
+            }
+            return new TileHashes(width, height, tileSize, hashes);
+        }
+    }
+
+    @FunctionalInterface
+    public interface ImageSource {
+        BufferedImage load() throws IOException;
+    }
+}
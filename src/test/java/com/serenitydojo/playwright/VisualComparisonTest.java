@@ -0,0 +1,93 @@
+package com.serenitydojo.playwright;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+public class VisualComparisonTest {
+
+    VisualComparison comparison = new VisualComparison();
+
+    @DisplayName("Identical screenshots match without loading the baseline image")
+    @Test
+    void identicalScreenshots() throws IOException {
+        BufferedImage baseline = page(Color.WHITE);
+
+        var result = comparison.compare(comparison.hash(baseline), () -> {
+            throw new AssertionError("The baseline image should not be needed");
+        }, page(Color.WHITE));
+
+        Assertions.assertThat(result.matches()).isTrue();
+        Assertions.assertThat(result.suspectTiles()).isZero();
+    }
+
+    @DisplayName("A changed region is reported as the tiles that cover it")
+    @Test
+    void changedRegion() throws IOException {
+        BufferedImage baseline = page(Color.WHITE);
+        BufferedImage actual = page(Color.WHITE);
+        paint(actual, Color.RED, 70, 10, 40, 20);
+
+        var result = comparison.compare(comparison.hash(baseline), () -> baseline, actual);
+
+        Assertions.assertThat(result.matches()).isFalse();
+        Assertions.assertThat(result.changedTiles())
+                .containsExactly(new VisualComparison.Tile(64, 0, 64, 64));
+    }
+
+    @DisplayName("Differences below the perceptual threshold are ignored")
+    @Test
+    void imperceptibleDifferences() throws IOException {
+        BufferedImage baseline = page(new Color(200, 200, 200));
+        BufferedImage actual = page(new Color(200, 200, 200));
+        paint(actual, new Color(201, 200, 199), 0, 0, 300, 200);
+
+        var result = comparison.compare(comparison.hash(baseline), () -> baseline, actual);
+
+        Assertions.assertThat(result.suspectTiles()).isGreaterThan(0);
+        Assertions.assertThat(result.matches()).isTrue();
+    }
+
+    @DisplayName("Screenshots of a different size never match")
+    @Test
+    void differentSizes() throws IOException {
+        BufferedImage baseline = page(Color.WHITE);
+
+        var result = comparison.compare(comparison.hash(baseline), () -> baseline, new BufferedImage(300, 250, BufferedImage.TYPE_INT_RGB));
+
+        Assertions.assertThat(result.matches()).isFalse();
+    }
+
+    @DisplayName("Tile hashes survive being written and read back")
+    @Test
+    void storedHashes() throws IOException {
+        var hashes = comparison.hash(page(Color.BLUE));
+        var stored = new ByteArrayOutputStream();
+
+        hashes.writeTo(stored);
+        var readBack = VisualComparison.TileHashes.readFrom(new ByteArrayInputStream(stored.toByteArray()));
+
+        Assertions.assertThat(readBack.hashes()).containsExactly(hashes.hashes());
+        Assertions.assertThat(readBack.width()).isEqualTo(300);
+    }
+
+    private static BufferedImage page(Color background) {
+        BufferedImage image = new BufferedImage(300, 200, BufferedImage.TYPE_INT_RGB);
+        paint(image, background, 0, 0, 300, 200);
+        return image;
+    }
+
+    private static void paint(BufferedImage image, Color colour, int x, int y, int width, int height) {
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(colour);
+        graphics.fillRect(x, y, width, height);
+        graphics.dispose();
+    }
+}
@@ -0,0 +1,104 @@
+package com.serenitydojo.playwright;
+
+import com.microsoft.playwright.Locator;
+import com.microsoft.playwright.Page;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Compares screenshots of the page with baselines, using {@link VisualComparison}.
+ * <p>
+ * Baselines live in {@code src/test/resources/visual-baselines/<TestClass>/}: the PNG itself and a small
+ * {@code .tiles} file with its tile hashes. Parts of the page that change from run to run (prices, dates,
+ * adverts) can be masked out by passing their locators; Playwright paints over them before the screenshot
+ * is taken, so they look the same every time. When a comparison fails, a copy of the screenshot with the
+ * changed tiles highlighted is written to {@code target/visual-diffs}.
+ * <p>
+ * As with {@link AriaSnapshots}, a missing baseline fails the test. {@code -Dvisual.baselines.record=true}
+ * records missing baselines and {@code -Dvisual.baselines.update=true} re-records them (see {@link Baselines}).
+ * <p>
+ * Tests that use it are tagged {@code visual} and only run with {@code -Dvisual.baselines=true}, until their
+ * baselines have been recorded and committed.
+ */
+public final class VisualSnapshots {
+
+    private static final Baselines BASELINES = Baselines.of("visual-baseline", "visual.baselines", "visual-baselines");
+    private static final Path DIFFS = Paths.get("target", "visual-diffs");
+    private static final Color CHANGED_TILE = new Color(255, 0, 0, 96);
+
+    private static final VisualComparison COMPARISON = new VisualComparison();
+
+    private VisualSnapshots() {
+    }
+
+    public static void assertMatchesBaseline(Page page, Class<?> testClass, String name, Locator... masks) {
+        byte[] screenshot = page.screenshot(new Page.ScreenshotOptions()
+                .setFullPage(true)
+                .setAnimations(com.microsoft.playwright.options.ScreenshotAnimations.DISABLED)
+                .setMask(Arrays.asList(masks)));
+        assertMatchesBaseline(screenshot, testClass, name);
+    }
+
+    public static void assertMatchesBaseline(byte[] screenshot, Class<?> testClass, String name) {
+        Path baselineImage = BASELINES.fileFor(testClass, name + ".png");
+        Path baselineTiles = BASELINES.fileFor(testClass, name + ".tiles");
+        String folder = baselineImage.getParent().getFileName().toString();
+        try {
+            BufferedImage actual = ImageIO.read(new ByteArrayInputStream(screenshot));
+            if (BASELINES.shouldRecord(baselineImage)) {
+                Files.createDirectories(baselineImage.getParent());
+                Files.write(baselineImage, screenshot);
+                try (OutputStream out = Files.newOutputStream(baselineTiles)) {
+                    COMPARISON.hash(actual).writeTo(out);
+                }
+                BASELINES.recorded(baselineImage);
+                return;
+            }
+
+            VisualComparison.TileHashes expectedHashes;
+            if (Files.exists(baselineTiles)) {
+                try (InputStream in = Files.newInputStream(baselineTiles)) {
+                    expectedHashes = VisualComparison.TileHashes.readFrom(in);
+                }
+            } else {
+                expectedHashes = COMPARISON.hash(ImageIO.read(baselineImage.toFile()));
+            }
+            VisualComparison.Result result = COMPARISON.compare(expectedHashes, () -> ImageIO.read(baselineImage.toFile()), actual);
+            if (!result.matches()) {
+                Path diff = writeDiff(actual, result, folder, name);
+                throw new AssertionError("Screenshot " + name + " does not match its baseline: " + result.summary()
+                        + System.lineSeparator() + "Changed tiles are highlighted in " + diff);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not compare screenshot " + name + " with its baseline", e);
+        }
+    }
+
+    private static Path writeDiff(BufferedImage actual, VisualComparison.Result result, String folder, String name) throws IOException {
+        BufferedImage diff = new BufferedImage(actual.getWidth(), actual.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = diff.createGraphics();
+        graphics.drawImage(actual, 0, 0, null);
+        graphics.setColor(CHANGED_TILE);
+        result.changedTiles().forEach(tile -> graphics.fillRect(tile.x(), tile.y(), tile.width(), tile.height()));
+        graphics.dispose();
+
+        Path diffFile = DIFFS.resolve(folder).resolve(name + "-diff.png");
+        Files.createDirectories(diffFile.getParent());
+        ImageIO.write(diff, "png", diffFile.toFile());
+        TestEventStream.emit("artifact", Map.of("kind", "visual-diff", "path", diffFile.toString()));
+        return diffFile;
+    }
+}
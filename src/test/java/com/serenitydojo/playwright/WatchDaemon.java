@@ -0,0 +1,282 @@
+package com.serenitydojo.playwright;
+
+import com.microsoft.playwright.Playwright;
+import org.junit.platform.engine.discovery.DiscoverySelectors;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reruns the tests you are working on every time you save them, without a Maven build in between.
+ * <p>
+ * The daemon stays up between runs, so the JVM is warm, the Playwright driver files are already unpacked
+ * and the Java compiler is already loaded. When a file under {@code src/test/java} changes, that file and the
+ * test classes affected by it are recompiled into {@code target/test-classes}, and only those tests are
+ * run: the class itself if it is a test, and every test class that mentions it. Packages created while
+ * it runs are watched too. Each run loads the test classes
+ * through a new class loader, so the new bytecode is picked up, and runs on a new thread. The Playwright
+ * fixtures own the driver process and the browser for the length of a run, so every run still starts the
+ * driver and launches its browser; what the daemon saves is the Maven build and JVM start-up. The helpers
+ * that keep state for the whole JVM ({@link AdaptiveTimeouts}, {@link TestEventStream}, {@link ResultCache},
+ * {@link CrossBrowserMatrix}) are loaded once and shared by every run, so changes to them need a restart.
+ * The time from the save to the result is printed after each run.
+ * <p>
+ * Start it with:
+ * <pre>
+ *     mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.serenitydojo.playwright.WatchDaemon
+ * </pre>
+ */
+public class WatchDaemon {
+
+    private static final Path SOURCES = Paths.get("src", "test", "java");
+    private static final Path CLASSES = Paths.get("target", "test-classes");
+    private static final String TEST_PACKAGE = WatchDaemon.class.getPackageName();
+    // Loaded once: reloading them each run would re-run their static set-up (shutdown hooks, writer threads)
+    private static final List<String> SHARED_STATE = Stream.of(AdaptiveTimeouts.class, TestEventStream.class,
+            ResultCache.class, CrossBrowserMatrix.class).map(Class::getName).toList();
+    // Editors often write a file in several steps; wait for them to settle before compiling
+    private static final long SETTLE_MILLIS = 150;
+
+    private final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    private final String classpath = testClasspath();
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        new WatchDaemon().watch();
+    }
+
+    private void watch() throws IOException, InterruptedException {
+        if (compiler == null) {
+            throw new IllegalStateException("The watch daemon needs a JDK, not a JRE, to recompile tests");
+        }
+        warmUp();
+        try (WatchService watcher = FileSystems.getDefault().newWatchService()) {
+            register(watcher, SOURCES);
+            System.out.println("Watching " + SOURCES.toAbsolutePath() + " - save a test to run it");
+            while (true) {
+                WatchKey key = watcher.take();
+                long savedAt = System.currentTimeMillis();
+                Set<Path> changed = new LinkedHashSet<>();
+                do {
+                    collectChanges(watcher, key, changed);
+                    key = watcher.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+                } while (key != null);
+                if (!changed.isEmpty()) {
+                    runCycle(changed, savedAt);
+                }
+            }
+        }
+    }
+
+    /**
+     * Watches a directory and everything below it.
+     */
+    private static void register(WatchService watcher, Path root) throws IOException {
+        try (Stream<Path> directories = Files.walk(root)) {
+            for (Path directory : directories.filter(Files::isDirectory).toList()) {
+                directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            }
+        }
+    }
+
+    private static void collectChanges(WatchService watcher, WatchKey key, Set<Path> changed) throws IOException {
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (!(event.context() instanceof Path file)) {
+                continue;
+            }
+            Path path = directory.resolve(file);
+            if (Files.isDirectory(path)) {
+                // A new package: watch it too, and pick up any sources already copied into it
+                register(watcher, path);
+                try (Stream<Path> sources = Files.walk(path)) {
+                    sources.filter(source -> source.toString().endsWith(".java")).forEach(changed::add);
+                }
+            } else if (file.toString().endsWith(".java")) {
+                changed.add(path);
+            }
+        }
+        key.reset();
+    }
+
+    private void runCycle(Set<Path> changedSources, long savedAt) {
+        List<String> changedClasses = changedSources.stream().map(WatchDaemon::classNameOf).toList();
+        System.out.println("Changed: " + changedClasses);
+
+        // The affected tests are recompiled too, so a changed signature in a helper is caught now
+        // rather than showing up as a NoSuchMethodError when the old test bytecode runs
+        List<String> affectedTests = affectedTests(changedClasses);
+        Set<Path> sourcesToCompile = new LinkedHashSet<>(changedSources);
+        affectedTests.forEach(test -> sourcesToCompile.add(SOURCES.resolve(test.replace('.', File.separatorChar) + ".java")));
+        int compiled = compiler.run(null, System.out, System.err, compilerArguments(sourcesToCompile));
+        if (compiled != 0) {
+            System.out.printf("Compilation failed (%d ms after save)%n", System.currentTimeMillis() - savedAt);
+            return;
+        }
+
+        if (affectedTests.isEmpty()) {
+            System.out.println("No tests affected");
+            return;
+        }
+        TestExecutionSummary summary = runTests(affectedTests);
+        System.out.printf("%d tests, %d failed - %d ms from save to result%n",
+                summary.getTestsFoundCount(), summary.getTotalFailureCount(), System.currentTimeMillis() - savedAt);
+        summary.getFailures().forEach(failure ->
+                System.out.println("  FAILED " + failure.getTestIdentifier().getDisplayName() + ": " + failure.getException()));
+    }
+
+    private String[] compilerArguments(Set<Path> sources) {
+        List<String> arguments = new ArrayList<>(List.of(
+                "-d", CLASSES.toString(),
+                "-classpath", classpath,
+                "-sourcepath", SOURCES.toString(),
+                "-encoding", "UTF-8",
+                "-implicit:none"));
+        sources.forEach(source -> arguments.add(source.toString()));
+        return arguments.toArray(String[]::new);
+    }
+
+    /**
+     * A test class is affected if it changed, or if its source mentions a class that changed.
+     */
+    private static List<String> affectedTests(List<String> changedClasses) {
+        Set<String> affected = new LinkedHashSet<>();
+        try (Stream<Path> sources = Files.walk(SOURCES)) {
+            for (Path source : sources.filter(path -> path.toString().endsWith(".java")).toList()) {
+                String className = classNameOf(source);
+                if (!className.endsWith("Test")) {
+                    continue;
+                }
+                String code = Files.readString(source);
+                boolean mentionsChangedClass = changedClasses.stream()
+                        .anyMatch(changed -> changed.equals(className) || code.contains(simpleName(changed)));
+                if (mentionsChangedClass) {
+                    affected.add(className);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new ArrayList<>(affected);
+    }
+
+    private TestExecutionSummary runTests(List<String> testClasses) {
+        SummaryGeneratingListener summary = new SummaryGeneratingListener();
+        Thread runner = new Thread(() -> {
+            try (FreshTestClassLoader classLoader = new FreshTestClassLoader()) {
+                Thread.currentThread().setContextClassLoader(classLoader);
+                LauncherDiscoveryRequest request = LauncherDiscoveryRequestBuilder.request()
+                        .selectors(testClasses.stream().map(DiscoverySelectors::selectClass).toList())
+                        .build();
+                LauncherFactory.create().execute(request, summary);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, "watch-run");
+        runner.start();
+        try {
+            runner.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return summary.getSummary();
+    }
+
+    /**
+     * Unpacks the driver and loads the compiler and JUnit once up front, so the first save is as quick as the rest.
+     */
+    private void warmUp() {
+        long start = System.currentTimeMillis();
+        Playwright.create().close();
+        LauncherFactory.create();
+        System.out.printf("Warmed up in %d ms%n", System.currentTimeMillis() - start);
+    }
+
+    private static String classNameOf(Path source) {
+        String relative = SOURCES.toAbsolutePath().relativize(source.toAbsolutePath()).toString();
+        return relative.substring(0, relative.length() - ".java".length()).replace(File.separatorChar, '.');
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    private static String testClasspath() {
+        if (WatchDaemon.class.getClassLoader() instanceof URLClassLoader loader) {
+            return Arrays.stream(loader.getURLs())
+                    .map(url -> new File(URI.create(url.toString())).getPath())
+                    .collect(Collectors.joining(File.pathSeparator));
+        }
+        return System.getProperty("java.class.path");
+    }
+
+    /**
+     * Loads our test classes from {@code target/test-classes} every time, instead of asking the parent
+     * class loader, which still holds the versions from before the change. Everything else (JUnit,
+     * Playwright, and the helpers with JVM-wide state) comes from the parent as usual, so the fixtures see
+     * the same classes as the launcher.
+     */
+    private static class FreshTestClassLoader extends URLClassLoader {
+
+        FreshTestClassLoader() throws IOException {
+            super(new URL[]{CLASSES.toUri().toURL()}, WatchDaemon.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith(TEST_PACKAGE) || isSharedState(name)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if (loaded == null) {
+                    URL classFile = findResource(name.replace('.', '/') + ".class");
+                    if (classFile == null) {
+                        return super.loadClass(name, resolve);
+                    }
+                    try (InputStream in = classFile.openStream()) {
+                        byte[] bytecode = in.readAllBytes();
+                        loaded = defineClass(name, bytecode, 0, bytecode.length);
+                    } catch (IOException e) {
+                        throw new ClassNotFoundException(name, e);
+                    }
+                }
+                if (resolve) {
+                    resolveClass(loaded);
+                }
+                return loaded;
+            }
+        }
+
+        private static boolean isSharedState(String name) {
+            return SHARED_STATE.stream().anyMatch(shared -> name.equals(shared) || name.startsWith(shared + "$"));
+        }
+    }
+}